@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Solves the dependencies of the projects used by DependenciesSolverTest,
+ * against the repository of the test fixtures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DependenciesSolverBenchmark {
+
+    /** The Debian package of each project */
+    private static final Map<String, String> PACKAGES = new HashMap<String, String>();
+
+    static {
+        PACKAGES.put("plexus-active-collections", "libplexus-active-collections-java");
+        PACKAGES.put("plexus-utils2", "libplexus-utils2-java");
+        PACKAGES.put("plexus-compiler", "libplexus-compiler-java");
+        PACKAGES.put("openmrs", "openmrs");
+    }
+
+    @Param({"plexus-active-collections", "plexus-utils2", "plexus-compiler", "openmrs"})
+    public String project;
+
+    private File fixtures;
+    private File outputDirectory;
+
+    @Setup
+    public void setUp() {
+        fixtures = new File(System.getProperty("benchmarks.basedir", "."), "maven-packager-utils/src/test/resources");
+        if (!fixtures.isDirectory()) {
+            throw new IllegalStateException("Cannot find the test fixtures in " + fixtures.getAbsolutePath()
+                    + ", run the benchmarks from the root directory or set the benchmarks.basedir property");
+        }
+        outputDirectory = new File("target/benchmarks/" + project);
+        outputDirectory.mkdirs();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(outputDirectory);
+    }
+
+    @Benchmark
+    public DependenciesSolver solveDependencies() {
+        String packageName = PACKAGES.get(project);
+        DependenciesSolver solver = new DependenciesSolver(outputDirectory, new FakePackageScanner(), false);
+        solver.mavenRepo = new File(fixtures, "repository");
+        // the modules of openmrs are listed in openmrs.poms
+        solver.exploreProjects = !"openmrs".equals(project);
+        solver.packageName = packageName;
+        solver.packageType = "maven";
+        solver.setBaseDir(new File(fixtures, project));
+        solver.setListOfPoms(new File(fixtures, packageName + ".poms"));
+
+        solver.solveDependencies();
+        return solver;
+    }
+}
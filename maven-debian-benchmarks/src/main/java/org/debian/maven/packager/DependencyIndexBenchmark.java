@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.debian.maven.repo.Dependency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checks the dependencies of a reactor shaped like openmrs, scaled to
+ * several hundreds of modules, against the project POMs ignoring their
+ * version. The index used by DependenciesSolver is compared with the
+ * linear scan it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DependencyIndexBenchmark {
+
+    /** The number of dependencies resolved per module */
+    private static final int DEPENDENCIES_PER_MODULE = 40;
+
+    /** The number of modules in the reactor */
+    @Param({"200", "800", "3200"})
+    public int modules;
+
+    private final List<Dependency> projectPoms = new ArrayList<Dependency>();
+    private final DependencyIndex projectPomsIndex = new DependencyIndex();
+    private final List<Dependency> lookups = new ArrayList<Dependency>();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int m = 0; m < modules; m++) {
+            projectPoms.add(new Dependency("org.openmrs", "openmrs-module" + m, m % 10 == 0 ? "pom" : "jar", "1.9.0"));
+        }
+        projectPomsIndex.addAll(projectPoms);
+
+        for (int m = 0; m < modules; m++) {
+            for (int d = 0; d < DEPENDENCIES_PER_MODULE; d++) {
+                if (d % 3 == 0) {
+                    // one third of the dependencies are modules of the reactor
+                    Dependency module = projectPoms.get(random.nextInt(modules));
+                    lookups.add(new Dependency(module.getGroupId(), module.getArtifactId(), module.getType(), "${project.version}"));
+                } else {
+                    int group = random.nextInt(100);
+                    lookups.add(new Dependency("org.external.group" + group, "artifact" + random.nextInt(20), "jar", "1." + random.nextInt(5)));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int containsIgnoreVersion() {
+        int found = 0;
+        for (Dependency dependency : lookups) {
+            if (projectPomsIndex.containsIgnoreVersion(dependency)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int found = 0;
+        for (Dependency dependency : lookups) {
+            for (Dependency pom : projectPoms) {
+                if (pom.equalsIgnoreVersion(dependency)) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.debian.maven.packager.util.PackageScanner;
+import org.debian.maven.repo.Dependency;
+
+/**
+ * Scanner answering without calling dpkg or apt-file: every artifact is
+ * assumed to be installed by the package lib&lt;artifactId&gt;-java.
+ */
+class FakePackageScanner extends PackageScanner {
+
+    FakePackageScanner() {
+        super(true);
+    }
+
+    @Override
+    public PackageScanner newInstanceWithFreshCaches() {
+        return this;
+    }
+
+    @Override
+    public void saveCache() {
+    }
+
+    @Override
+    public DebianDependency searchPkg(File dir, String extension) {
+        return getPackage(dir.getParentFile().getName());
+    }
+
+    @Override
+    public DebianDependency searchPkg(File fileToSearch) {
+        return getPackage(fileToSearch.getParentFile().getParentFile().getName());
+    }
+
+    @Override
+    public DebianDependency searchPkgContainingPom(Dependency dependency) {
+        return getPackage(dependency.getArtifactId());
+    }
+
+    @Override
+    public DebianDependency searchPkgContainingJar(Dependency dependency) {
+        return getPackage(dependency.getArtifactId());
+    }
+
+    @Override
+    public String getPackageVersion(DebianDependency pkg, boolean onlyInstalled) {
+        return "1.0";
+    }
+
+    @Override
+    public List<DebianDependency> addDocDependencies(Collection<DebianDependency> debianDeps, Map<DebianDependency, Dependency> versionedPackagesAndDependencies) {
+        return new ArrayList<DebianDependency>();
+    }
+
+    private DebianDependency getPackage(String artifactId) {
+        return new DebianDependency("lib" + artifactId.toLowerCase() + "-java");
+    }
+}
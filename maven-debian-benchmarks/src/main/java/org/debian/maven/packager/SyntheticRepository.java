@@ -0,0 +1,281 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a Maven repository laid out like /usr/share/maven-repo, and a
+ * multi-module project depending on it, to measure the tools on repositories
+ * of any size. The content only depends on the parameters and on the seed.
+ *
+ * <p>Each group is installed by the package lib&lt;group&gt;-java and has a chain
+ * of parent POMs followed by artifacts depending on the artifacts generated
+ * before them. Each artifact has several versions and a symbolic version
+ * (1.x) referenced by the dependencies, like the POMs installed by
+ * maven-debian-helper. The POMs declare the debian.package property and
+ * publish a rule replacing their versions by the symbolic version.</p>
+ */
+public class SyntheticRepository {
+
+    static final String GROUP_PREFIX = "org.synthetic.";
+
+    private final long seed;
+    private int groups = 10;
+    private int artifactsPerGroup = 10;
+    private int versionsPerArtifact = 2;
+    private int dependenciesPerArtifact = 5;
+    private int parentDepth = 2;
+
+    /** The artifacts generated, the dependencies are chosen among them */
+    private final List<Artifact> artifacts = new ArrayList<Artifact>();
+
+    private static class Artifact {
+        final String groupId;
+        final String artifactId;
+        final String packaging;
+        final int major;
+        final Artifact parent;
+
+        Artifact(String groupId, String artifactId, String packaging, int major, Artifact parent) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.packaging = packaging;
+            this.major = major;
+            this.parent = parent;
+        }
+
+        String getDebianVersion() {
+            return major + ".x";
+        }
+
+        String getVersion(int index) {
+            return major + "." + index;
+        }
+    }
+
+    public SyntheticRepository(long seed) {
+        this.seed = seed;
+    }
+
+    public void setGroups(int groups) {
+        this.groups = groups;
+    }
+
+    public void setArtifactsPerGroup(int artifactsPerGroup) {
+        this.artifactsPerGroup = artifactsPerGroup;
+    }
+
+    public void setVersionsPerArtifact(int versionsPerArtifact) {
+        this.versionsPerArtifact = versionsPerArtifact;
+    }
+
+    public void setDependenciesPerArtifact(int dependenciesPerArtifact) {
+        this.dependenciesPerArtifact = dependenciesPerArtifact;
+    }
+
+    public void setParentDepth(int parentDepth) {
+        this.parentDepth = parentDepth;
+    }
+
+    /**
+     * Returns the number of POMs written by {@link #generateRepository(File)}.
+     */
+    public int getPomCount() {
+        return groups * (parentDepth + artifactsPerGroup) * (versionsPerArtifact + 1);
+    }
+
+    /**
+     * Writes the repository in the specified directory.
+     */
+    public void generateRepository(File repositoryDir) throws IOException {
+        Random random = new Random(seed);
+        artifacts.clear();
+        for (int g = 0; g < groups; g++) {
+            String group = "group" + g;
+            String groupId = GROUP_PREFIX + group;
+            String debianPackage = "lib" + group + "-java";
+            int major = 1 + random.nextInt(4);
+
+            Artifact parent = null;
+            for (int d = 0; d < parentDepth; d++) {
+                parent = new Artifact(groupId, group + "-parent" + (d == 0 ? "" : d), "pom", major, parent);
+                writeArtifact(repositoryDir, parent, debianPackage, new ArrayList<Artifact>());
+            }
+
+            List<Artifact> groupArtifacts = new ArrayList<Artifact>();
+            for (int a = 0; a < artifactsPerGroup; a++) {
+                Artifact artifact = new Artifact(groupId, group + "-artifact" + a, "jar", major, parent);
+                writeArtifact(repositoryDir, artifact, debianPackage, pickDependencies(random, dependenciesPerArtifact));
+                groupArtifacts.add(artifact);
+            }
+            artifacts.addAll(groupArtifacts);
+        }
+    }
+
+    /**
+     * Writes a project whose modules depend on the artifacts of the repository
+     * and on the previous module. The repository must be generated first.
+     *
+     * @param projectDir the base directory of the project, containing the pom.xml file
+     * @param modules    the number of modules
+     */
+    public void generateProject(File projectDir, int modules) throws IOException {
+        Random random = new Random(seed + 1);
+        String groupId = GROUP_PREFIX + "project";
+        StringBuilder root = new StringBuilder();
+        root.append(header(groupId, "project", "1.0", "pom", null, null));
+        root.append("\t<modules>\n");
+        for (int m = 0; m < modules; m++) {
+            root.append("\t\t<module>module").append(m).append("</module>\n");
+        }
+        root.append("\t</modules>\n");
+        root.append("</project>\n");
+        write(new File(projectDir, "pom.xml"), root.toString());
+
+        for (int m = 0; m < modules; m++) {
+            StringBuilder pom = new StringBuilder();
+            pom.append(header(groupId, "module" + m, "1.0", "jar", new String[]{groupId, "project", "1.0"}, null));
+            pom.append("\t<dependencies>\n");
+            if (m > 0) {
+                pom.append(dependency(groupId, "module" + (m - 1), "${project.version}"));
+            }
+            for (Artifact artifact : pickDependencies(random, dependenciesPerArtifact)) {
+                // the upstream projects depend on the released versions
+                pom.append(dependency(artifact.groupId, artifact.artifactId, artifact.getVersion(random.nextInt(versionsPerArtifact))));
+            }
+            pom.append("\t</dependencies>\n");
+            pom.append("</project>\n");
+            write(new File(projectDir, "module" + m + "/pom.xml"), pom.toString());
+        }
+    }
+
+    private List<Artifact> pickDependencies(Random random, int count) {
+        List<Artifact> dependencies = new ArrayList<Artifact>();
+        for (int i = 0; i < count && !artifacts.isEmpty(); i++) {
+            Artifact dependency = artifacts.get(random.nextInt(artifacts.size()));
+            if (!dependencies.contains(dependency)) {
+                dependencies.add(dependency);
+            }
+        }
+        return dependencies;
+    }
+
+    private void writeArtifact(File repositoryDir, Artifact artifact, String debianPackage, List<Artifact> dependencies) throws IOException {
+        List<String> versions = new ArrayList<String>();
+        for (int v = 0; v < versionsPerArtifact; v++) {
+            versions.add(artifact.getVersion(v));
+        }
+        versions.add(artifact.getDebianVersion());
+
+        String originalVersion = artifact.getVersion(versionsPerArtifact - 1);
+        String properties = "\t<properties>\n"
+                + "\t\t<debian.mavenRules>" + artifact.groupId + " " + artifact.artifactId + " * s/" + artifact.major + "\\..*/"
+                + artifact.getDebianVersion() + "/ * *</debian.mavenRules>\n"
+                + "\t\t<debian.originalVersion>" + originalVersion + "</debian.originalVersion>\n"
+                + "\t\t<debian.package>" + debianPackage + "</debian.package>\n"
+                + "\t</properties>\n";
+
+        for (String version : versions) {
+            StringBuilder pom = new StringBuilder();
+            String[] parent = null;
+            if (artifact.parent != null) {
+                parent = new String[]{artifact.parent.groupId, artifact.parent.artifactId, artifact.parent.getDebianVersion()};
+            }
+            pom.append(header(artifact.groupId, artifact.artifactId, version, artifact.packaging, parent, properties));
+            if (!dependencies.isEmpty()) {
+                pom.append("\t<dependencies>\n");
+                for (Artifact dependency : dependencies) {
+                    pom.append(dependency(dependency.groupId, dependency.artifactId, dependency.getDebianVersion()));
+                }
+                pom.append("\t</dependencies>\n");
+            }
+            pom.append("</project>\n");
+
+            File dir = new File(repositoryDir, artifact.groupId.replace('.', '/') + "/" + artifact.artifactId + "/" + version);
+            write(new File(dir, artifact.artifactId + "-" + version + ".pom"), pom.toString());
+        }
+    }
+
+    private static String header(String groupId, String artifactId, String version, String packaging, String[] parent, String properties) {
+        StringBuilder pom = new StringBuilder();
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" ");
+        pom.append("xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/maven-v4_0_0.xsd\">\n");
+        pom.append("\t<modelVersion>4.0.0</modelVersion>\n");
+        if (parent != null) {
+            pom.append("\t<parent>\n");
+            pom.append("\t\t<groupId>").append(parent[0]).append("</groupId>\n");
+            pom.append("\t\t<artifactId>").append(parent[1]).append("</artifactId>\n");
+            pom.append("\t\t<version>").append(parent[2]).append("</version>\n");
+            pom.append("\t</parent>\n");
+        }
+        pom.append("\t<groupId>").append(groupId).append("</groupId>\n");
+        pom.append("\t<artifactId>").append(artifactId).append("</artifactId>\n");
+        pom.append("\t<version>").append(version).append("</version>\n");
+        pom.append("\t<packaging>").append(packaging).append("</packaging>\n");
+        if (properties != null) {
+            pom.append(properties);
+        }
+        return pom.toString();
+    }
+
+    private static String dependency(String groupId, String artifactId, String version) {
+        return "\t\t<dependency>\n"
+                + "\t\t\t<groupId>" + groupId + "</groupId>\n"
+                + "\t\t\t<artifactId>" + artifactId + "</artifactId>\n"
+                + "\t\t\t<version>" + version + "</version>\n"
+                + "\t\t</dependency>\n";
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Purpose: Generate a synthetic Maven repository and a project depending on it.");
+            System.out.println("Usage: <repository dir> <project dir> [groups] [artifacts per group] [modules] [seed]");
+            return;
+        }
+        int groups = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int artifactsPerGroup = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int modules = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+
+        SyntheticRepository generator = new SyntheticRepository(seed);
+        generator.setGroups(groups);
+        generator.setArtifactsPerGroup(artifactsPerGroup);
+        generator.generateRepository(new File(args[0]));
+        generator.generateProject(new File(args[1]), modules);
+        System.out.println("Generated " + generator.getPomCount() + " POMs in " + args[0] + " and " + modules + " modules in " + args[1]);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Solves the dependencies of a synthetic project against a synthetic
+ * repository of 10k to 100k POMs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SyntheticSolverBenchmark {
+
+    /** The number of groups in the repository, each with 2 parents and 50 artifacts in 3 versions */
+    @Param({"64", "640"})
+    public int groups;
+
+    @Param({"10", "100"})
+    public int modules;
+
+    private File dir;
+    private File repository;
+    private File project;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = new File("target/benchmarks/synthetic-" + groups + "-" + modules);
+        repository = new File(dir, "repository");
+        project = new File(dir, "project");
+        FileUtils.deleteDirectory(dir);
+
+        SyntheticRepository generator = new SyntheticRepository(1);
+        generator.setGroups(groups);
+        generator.setArtifactsPerGroup(50);
+        generator.generateRepository(repository);
+        generator.generateProject(project, modules);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Benchmark
+    public DependenciesSolver solveDependencies() throws IOException {
+        File outputDirectory = new File(project, "debian");
+        FileUtils.deleteDirectory(outputDirectory);
+        outputDirectory.mkdirs();
+
+        DependenciesSolver solver = new DependenciesSolver(outputDirectory, new FakePackageScanner(), false);
+        solver.mavenRepo = repository;
+        solver.exploreProjects = true;
+        solver.packageName = "libsynthetic-java";
+        solver.packageType = "maven";
+        solver.setBaseDir(project);
+        solver.setListOfPoms(new File(outputDirectory, "libsynthetic-java.poms"));
+
+        solver.solveDependencies();
+        return solver;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recognizes the names and the URLs of the licenses found in the POMs and
+ * reported by licensecheck, including some which aren't recognized, and
+ * the licenses of a licensecheck transcript of 100k source files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LicensesScannerBenchmark {
+
+    private static final String[][] LICENSES = {
+            {"The Apache Software License, Version 2.0 ", "http://www.apache.org/licenses/LICENSE-2.0.txt"},
+            {"Apache License 1.1 ", ""},
+            {"GNU Lesser General Public License ", "http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html"},
+            {"GPLv2 ", ""},
+            {"", "http://www.gnu.org/licenses/gpl-3.0.html"},
+            {"MIT License ", "http://www.opensource.org/licenses/mit-license.php"},
+            {"New BSD License ", "http://www.opensource.org/licenses/bsd-license.php"},
+            {"Eclipse Public License - v 1.0 ", "http://www.eclipse.org/legal/epl-v10.html"},
+            {"COMMON DEVELOPMENT AND DISTRIBUTION LICENSE (CDDL) Version 1.0 ", ""},
+            {"", "http://creativecommons.org/licenses/by-sa/3.0"},
+            {"LGPL (v2.1 or later)", ""},
+            {"GPL (v2) with Classpath exception", ""},
+            {"zlib/libpng", ""},
+            {"Proprietary ", "http://www.example.com/license.html"},
+            {"", ""}
+    };
+
+    /** The licenses reported by licensecheck, weighted by repetition like in a typical Java project */
+    private static final String[] LICENSECHECK_LICENSES = {
+            "Apache (v2.0)", "Apache (v2.0)", "Apache (v2.0)", "Apache (v2.0)",
+            "LGPL (v2.1 or later)", "GPL (v2 or later)", "GPL (v2) with Classpath exception",
+            "BSD (3 clause)", "MIT/X11 (BSD like)", "EPL (v1.0)", "MPL (v1.1)", "zlib/libpng",
+            "*No copyright* UNKNOWN", "GENERATED FILE", "UNKNOWN", "Public domain"
+    };
+
+    private static final int TRANSCRIPT_LINES = 100000;
+
+    private final LicensesScanner scanner = new LicensesScanner();
+
+    /** The lines of the transcript, formatted like the output of licensecheck -r */
+    private String[] transcript;
+
+    @Setup
+    public void setUp() {
+        transcript = new String[TRANSCRIPT_LINES];
+        for (int i = 0; i < TRANSCRIPT_LINES; i++) {
+            transcript[i] = "src/main/java/org/example/package" + (i / 100) + "/Class" + i + ".java: "
+                    + LICENSECHECK_LICENSES[i % LICENSECHECK_LICENSES.length];
+        }
+    }
+
+    @Benchmark
+    public Set<String> recognizeLicense() {
+        Set<String> licenses = new HashSet<String>();
+        for (String[] license : LICENSES) {
+            scanner.recognizeLicense(licenses, license[0], license[1]);
+        }
+        return licenses;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Set<String> recognizeTranscript() {
+        Set<String> licenses = new HashSet<String>();
+        for (String line : transcript) {
+            scanner.recognizeLicense(licenses, line.substring(line.lastIndexOf(": ") + 2), "");
+        }
+        return licenses;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses the output of dpkg --search, apt-file search, dpkg --status and
+ * apt-get --no-act with the handlers used by the PackageScanner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OutputParsersBenchmark {
+
+    /** The number of files listed by dpkg --search */
+    @Param({"10", "1000"})
+    public int files;
+
+    private List<String> searchOutput;
+    private List<String> statusOutput;
+    private List<String> aptGetOutput;
+
+    @Setup
+    public void setUp() {
+        searchOutput = new ArrayList<String>();
+        for (int i = 0; i < files; i++) {
+            String dir = "/usr/share/maven-repo/org/foo" + i + "/foo" + i + "/1." + i + "/";
+            searchOutput.add("libfoo" + i + "-java: " + dir + "foo" + i + "-1." + i + ".jar");
+            searchOutput.add("libfoo" + i + "-java: " + dir + "foo" + i + "-1." + i + ".pom");
+        }
+
+        statusOutput = new ArrayList<String>();
+        statusOutput.add("Package: libjavacc-maven-plugin-java");
+        statusOutput.add("Status: install ok installed");
+        statusOutput.add("Priority: optional");
+        statusOutput.add("Section: java");
+        statusOutput.add("Installed-Size: 144");
+        statusOutput.add("Maintainer: Debian Java Maintainers <pkg-java-maintainers@lists.alioth.debian.org>");
+        statusOutput.add("Architecture: all");
+        statusOutput.add("Source: javacc-maven-plugin");
+        statusOutput.add("Version: 2.6-1");
+        statusOutput.add("Depends: javacc, jtb, libdoxia-java, libdoxia-sitetools-java, libmaven-reporting-impl-java, libplexus-utils-java");
+        statusOutput.add("Description: maven plugin which uses JavaCC to process JavaCC grammar files");
+
+        aptGetOutput = new ArrayList<String>();
+        aptGetOutput.add("NOTE: This is only a simulation!");
+        aptGetOutput.add("Reading package lists... Done");
+        aptGetOutput.add("Building dependency tree");
+        aptGetOutput.add("Reading state information... Done");
+        aptGetOutput.add("The following NEW packages will be installed:");
+        aptGetOutput.add("   libmaven-war-plugin-java (2.1~beta1-1build1)");
+        aptGetOutput.add("0 upgraded, 1 newly installed, 0 to remove and 7 not upgraded.");
+        aptGetOutput.add("Inst libmaven-war-plugin-java (2.1~beta1-1build1 Debian:testing [all])");
+        aptGetOutput.add("Conf libmaven-war-plugin-java (2.1~beta1-1build1 Debian:testing [all])");
+    }
+
+    private <T extends OutputHandler> T parse(List<String> lines, T handler) {
+        for (String line : lines) {
+            handler.newLine(line);
+        }
+        return handler;
+    }
+
+    @Benchmark
+    public GetPackageResult getPackageResult() {
+        return parse(searchOutput, new GetPackageResult());
+    }
+
+    @Benchmark
+    public GetPackageContainingPatternResult getPackageContainingPatternResult() {
+        return parse(searchOutput, new GetPackageContainingPatternResult(".pom"));
+    }
+
+    @Benchmark
+    public String getPackageVersionResult() {
+        return parse(statusOutput, new GetPackageVersionResult()).getResult();
+    }
+
+    @Benchmark
+    public String getChangelogVersionResult() {
+        return parse(aptGetOutput, new GetChangelogVersionResult("libmaven-war-plugin-java")).getResult();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Installs a jar of plexus-compiler in the package directory, like InstallMojoTest.
+ * The fixture is copied first since the package is installed in its debian directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InstallMojoBenchmark {
+
+    /** Install the jar in /usr/share/java as well */
+    @Param({"false", "true"})
+    public boolean installToUsj;
+
+    private File project;
+    private File packageDir;
+
+    @Setup
+    public void setUp() throws IOException {
+        File fixture = new File(System.getProperty("benchmarks.basedir", "."), "debian-maven-plugin/src/test/resources/plexus-compiler");
+        if (!fixture.isDirectory()) {
+            throw new IllegalStateException("Cannot find the test fixtures in " + fixture.getAbsolutePath()
+                    + ", run the benchmarks from the root directory or set the benchmarks.basedir property");
+        }
+        project = new File("target/benchmarks/plexus-compiler");
+        FileUtils.deleteDirectory(project);
+        FileUtils.copyDirectory(fixture, project);
+        packageDir = new File(project, "debian/libplexus-compiler-java");
+    }
+
+    @Setup(Level.Invocation)
+    public void cleanPackage() throws IOException {
+        FileUtils.deleteDirectory(packageDir);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(project);
+    }
+
+    @Benchmark
+    public File install() throws MojoExecutionException {
+        File basedir = new File(project, "plexus-compiler-api");
+        InstallMojo mojo = new InstallMojo();
+        mojo.setBasedir(basedir);
+        mojo.setDebianDir(new File(project, "debian"));
+        mojo.setGroupId("org.codehaus.plexus");
+        mojo.setDestGroupId("org.codehaus.plexus");
+        mojo.setArtifactId("plexus-compiler-api");
+        mojo.setDestArtifactId("plexus-compiler-api");
+        mojo.setInstallToUsj(installToUsj);
+        mojo.setJarDir(new File(basedir, "target").getAbsolutePath());
+        mojo.setMavenRules("maven.rules");
+        mojo.setMavenIgnoreRules("maven.ignoreRules");
+        mojo.setMavenPublishedRules("maven.publishedRules");
+        mojo.setNoUsjVersionless(false);
+        mojo.setDebianPackage("libplexus-compiler-java");
+        mojo.setDestPackage("libplexus-compiler-java");
+        mojo.setVersion("1.8.2");
+        mojo.setDebianVersion("1.x");
+
+        mojo.execute();
+        return packageDir;
+    }
+}
@@ -0,0 +1,4 @@
+package org.debian.maven.packager.jmh_generated;
+public class DependenciesSolverBenchmark_jmhType extends DependenciesSolverBenchmark_jmhType_B3 {
+}
+
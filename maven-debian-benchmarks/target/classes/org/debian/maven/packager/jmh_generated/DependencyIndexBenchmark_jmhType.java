@@ -0,0 +1,4 @@
+package org.debian.maven.packager.jmh_generated;
+public class DependencyIndexBenchmark_jmhType extends DependencyIndexBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.debian.maven.packager.jmh_generated;
+public class SyntheticSolverBenchmark_jmhType extends SyntheticSolverBenchmark_jmhType_B3 {
+}
+
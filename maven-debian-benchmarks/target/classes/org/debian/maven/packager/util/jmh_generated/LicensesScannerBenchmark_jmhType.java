@@ -0,0 +1,4 @@
+package org.debian.maven.packager.util.jmh_generated;
+public class LicensesScannerBenchmark_jmhType extends LicensesScannerBenchmark_jmhType_B3 {
+}
+
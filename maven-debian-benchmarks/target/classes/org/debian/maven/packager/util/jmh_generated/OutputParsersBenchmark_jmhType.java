@@ -0,0 +1,4 @@
+package org.debian.maven.packager.util.jmh_generated;
+public class OutputParsersBenchmark_jmhType extends OutputParsersBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.debian.maven.plugin.jmh_generated;
+public class DirectoryUtilsBenchmark_jmhType extends DirectoryUtilsBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.debian.maven.plugin.jmh_generated;
+public class InstallMojoBenchmark_jmhType extends InstallMojoBenchmark_jmhType_B3 {
+}
+
@@ -23,6 +23,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.maven.project.MavenProject;
+import org.debian.maven.packager.util.PackageCacheFile;
 import org.debian.maven.packager.util.PackageScanner;
 import org.debian.maven.repo.DependencyRuleSetFiles.RulesType;
 
@@ -127,7 +128,8 @@ public class DependenciesMojo extends AbstractMojo {
             outputDirectory.mkdirs();
         }
 
-        DependenciesSolver solver = new DependenciesSolver(outputDirectory, new PackageScanner(offline), interactive);
+        PackageScanner scanner = new PackageScanner(offline, PackageCacheFile.getDefault());
+        DependenciesSolver solver = new DependenciesSolver(outputDirectory, scanner, interactive);
 
         File basedir = project.getBasedir();
         // TODO: use the list of project defined here for some initialisation step, I've forgotten what to do...
@@ -141,6 +143,7 @@ public class DependenciesMojo extends AbstractMojo {
 
         solver.setBaseDir(basedir);
         solver.mavenRepo = mavenRepo;
+        solver.repositorySnapshot = RepositorySnapshot.getLocation(outputDirectory);
         solver.packageName = packageName;
         solver.packageType = packageType;
         solver.generateJavadoc = resolveJavadoc;
@@ -158,6 +161,7 @@ public class DependenciesMojo extends AbstractMojo {
         solver.pomTransformer.getListOfPOMs().save();
         solver.pomTransformer.getRulesFiles().save(outputDirectory, RulesType.RULES);
         solver.saveSubstvars();
+        solver.saveCache();
     }
 
 }
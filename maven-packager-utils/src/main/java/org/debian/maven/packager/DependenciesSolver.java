@@ -19,10 +19,17 @@ package org.debian.maven.packager;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -74,16 +81,24 @@ public class DependenciesSolver {
     // explore (search) for additional pom files or look only for those defined in debian/*.poms?
     boolean exploreProjects;
     private Repository repository;
+    /** Serializes the accesses to the repository from the threads resolving the modules */
+    private final Object repositoryLock = new Object();
+    private VersionIndex versionIndex;
+    private RepositoryMonitor repositoryMonitor;
+    /** The snapshot of the repository reused between two runs, null to scan the repository every time */
+    File repositorySnapshot;
     List<String> issues = new ArrayList<String>();
-    private List<Dependency> projectPoms = new ArrayList<Dependency>();
+    private DependencyIndex projectPoms = new DependencyIndex();
     private List<ToResolve> toResolve = new ArrayList<ToResolve>();
-    private Set<Dependency> knownProjectDependencies = new TreeSet<Dependency>();
-    private Set<Dependency> ignoredDependencies = new TreeSet<Dependency>();
+    private DependencyIndex knownProjectDependencies = new DependencyIndex();
+    private DependencyIndex ignoredDependencies = new DependencyIndex();
 
     private DebianDependencies debianDeps = new DebianDependencies();
     boolean runTests;
     boolean generateJavadoc;
     final boolean interactive;
+    /** Resolves the modules concurrently in non-interactive mode, otherwise one after the other as in interactive mode */
+    boolean resolveConcurrently = true;
     private boolean askedToFilterModules = false;
     private boolean filterModules = false;
     boolean verbose = false;
@@ -101,6 +116,15 @@ public class DependenciesSolver {
     private List<Rule> defaultRules = new ArrayList<Rule>();
     private PackageScanner scanner;
 
+    /** The searches of the dependencies in the repository, shared by the modules declaring the same dependencies */
+    private final Map<String, PomSearch> pomSearches = new ConcurrentHashMap<String, PomSearch>();
+
+    /** The rules of the rules files indexed by groupId and artifactId */
+    private final Map<RulesType, RuleIndex> ruleIndexes = new EnumMap<RulesType, RuleIndex>(RulesType.class);
+
+    /** The resolution recorded by the current thread when the dependencies are resolved concurrently */
+    private final ThreadLocal<Resolution> currentResolution = new ThreadLocal<Resolution>();
+
     public DependenciesSolver(File outputDirectory, PackageScanner scanner, boolean interactive) {
         this.outputDirectory = outputDirectory;
         this.scanner = scanner;
@@ -180,16 +204,157 @@ public class DependenciesSolver {
                 List<Dependency> dependenciesByType = pom.getDependencies().get(listType);
 
                 for (Dependency dependency : dependenciesByType) {
+                    long start = Trace.now();
                     resolveDependency(dependency, sourcePom, buildTime, mavenExtension, management, false);
+                    if (Trace.isEnabled()) {
+                        Trace.event("dependency", dependency.toString(), start);
+                    }
                 }
-            } catch (DependencyNotFoundException e) {
-                log.log(Level.SEVERE, "Cannot resolve dependencies in " + sourcePom + ": " + e.getMessage());
             } catch (Exception e) {
+                reportError(e);
+            }
+        }
+
+        /**
+         * Resolves the dependencies without modifying the state of the solver.
+         * The changes are recorded for each dependency and applied later by {@link #apply(List)}.
+         * The resolution doesn't stop on the first error, the dependency may have been
+         * ignored in the meantime by another module.
+         */
+        private List<Resolution> resolveInBackground() {
+            List<Resolution> resolutions = new ArrayList<Resolution>();
+            try {
+                for (Dependency dependency : getPOM(sourcePom).getDependencies().get(listType)) {
+                    Resolution resolution = new Resolution(dependency);
+                    resolutions.add(resolution);
+                    currentResolution.set(resolution);
+                    long start = Trace.now();
+                    try {
+                        resolveDependency(dependency, sourcePom, buildTime, mavenExtension, management, false);
+                    } catch (Exception e) {
+                        resolution.error = e;
+                    }
+                    if (Trace.isEnabled()) {
+                        Trace.event("dependency", dependency.toString(), start);
+                    }
+                }
+            } catch (Exception e) {
+                Resolution resolution = new Resolution(null);
+                resolution.error = e;
+                resolutions.add(resolution);
+            } finally {
+                currentResolution.remove();
+            }
+            return resolutions;
+        }
+
+        /**
+         * Applies the resolutions recorded in the background, skipping the dependencies
+         * ignored since then as a serial resolution would have done.
+         */
+        private void apply(List<Resolution> resolutions) {
+            for (Resolution resolution : resolutions) {
+                if (resolution.dependency != null && ignoredDependencies.containsIgnoreVersion(resolution.dependency)) {
+                    continue;
+                }
+                resolution.apply();
+                if (resolution.error != null) {
+                    reportError(resolution.error);
+                    return;
+                }
+            }
+        }
+
+        private void reportError(Exception e) {
+            if (e instanceof DependencyNotFoundException) {
+                log.log(Level.SEVERE, "Cannot resolve dependencies in " + sourcePom + ": " + e.getMessage());
+            } else {
                 log.log(Level.SEVERE, "Cannot resolve dependencies in " + sourcePom + ": " + e.getMessage(), e);
             }
         }
     }
 
+    /**
+     * The changes to the solver made by the resolution of a dependency in a background thread.
+     */
+    private class Resolution {
+
+        private final Dependency dependency;
+        private final List<String> messages = new ArrayList<String>();
+        private final List<String> issues = new ArrayList<String>();
+        private final List<Dependency> ignored = new ArrayList<Dependency>();
+        private final Map<RulesType, List<DependencyRule>> rules = new EnumMap<RulesType, List<DependencyRule>>(RulesType.class);
+        private final DebianDependencies debianDeps = new DebianDependencies();
+        private final Map<DebianDependency, Dependency> versionedPackages = new LinkedHashMap<DebianDependency, Dependency>();
+        /** The versions found for the dependencies declared without version, set on the shared POMs by apply() */
+        private final Map<Dependency, String> versions = new IdentityHashMap<Dependency, String>();
+        private Exception error;
+
+        private Resolution(Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+        private void addRules(RulesType type, Collection<DependencyRule> newRules) {
+            if (!rules.containsKey(type)) {
+                rules.put(type, new ArrayList<DependencyRule>());
+            }
+            rules.get(type).addAll(newRules);
+        }
+
+        /**
+         * Applies the changes in the order they were made, must be called from the solver thread.
+         */
+        private void apply() {
+            for (Map.Entry<Dependency, String> entry : versions.entrySet()) {
+                entry.getKey().setVersion(entry.getValue());
+            }
+            for (String message : messages) {
+                System.out.println(message);
+            }
+            DependenciesSolver.this.issues.addAll(issues);
+            ignoredDependencies.addAll(ignored);
+            for (Map.Entry<RulesType, List<DependencyRule>> entry : rules.entrySet()) {
+                addToRulesFiles(entry.getKey(), entry.getValue());
+            }
+            for (DebianDependencies.Type type : DebianDependencies.Type.values()) {
+                DependenciesSolver.this.debianDeps.add(type, debianDeps.get(type));
+            }
+            versionedPackagesAndDependencies.putAll(versionedPackages);
+        }
+    }
+
+    /**
+     * The result of the search of a dependency in the repository.
+     */
+    private class PomSearch {
+
+        private POMInfo pom;
+        /** The version of the dependency after the search, taken from the dependency management or guessed */
+        private String version;
+        private boolean bundle;
+        private boolean skipped;
+        private boolean versionNotFound;
+        private boolean severalPluginVersions;
+        /** The messages displayed and the rules added during the search */
+        private final Resolution effects = new Resolution(null);
+
+        private void replay() {
+            for (String message : effects.messages) {
+                println(message);
+            }
+            for (Map.Entry<RulesType, List<DependencyRule>> entry : effects.rules.entrySet()) {
+                addRules(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Saves the results of the package lookups for the next run.
+     */
+    public void saveCache() {
+        scanner.saveCache();
+    }
+
     public void saveSubstvars() {
         Properties depVars = Substvars.loadSubstvars(outputDirectory, packageName);
 
@@ -210,6 +375,117 @@ public class DependenciesSolver {
         Substvars.write(outputDirectory, packageName, depVars);
     }
 
+    /**
+     * Tells if the substitution variables of a previous run are still in the substvars file.
+     */
+    boolean hasSubstvars() {
+        return hasSubstvars(new File(outputDirectory, packageName + ".substvars"));
+    }
+
+    /**
+     * Tells if the substvars file defines the runtime dependencies, either as written by
+     * the solver (maven.Depends) or once renamed by mh_resolve_dependencies (maven:Depends).
+     * The file is read line by line, Properties would read maven:Depends as the key maven.
+     */
+    static boolean hasSubstvars(File substvars) {
+        if (!substvars.isFile()) {
+            return false;
+        }
+        String name = RUNTIME.substvarName;
+        String renamedName = name.replace("maven.", "maven:");
+        try {
+            BufferedReader reader = new BufferedReader(new FileReader(substvars));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.startsWith(name + "=") || line.startsWith(renamedName + "=")) {
+                        return true;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            log.log(Level.FINE, "Cannot read " + substvars, e);
+        }
+        return false;
+    }
+
+    /**
+     * Tells if the results of the previous run can be reused: the substvars are still there
+     * and the inputs have the fingerprint saved after the previous run.
+     */
+    boolean isUpToDate(boolean offline) throws IOException {
+        return hasSubstvars() && getInputFingerprint(offline).matches(getFingerprintFile());
+    }
+
+    /**
+     * Saves the fingerprint of the inputs, once the list of POMs and the rules have been saved.
+     */
+    void saveFingerprint(boolean offline) throws IOException {
+        getInputFingerprint(offline).save(getFingerprintFile());
+    }
+
+    /**
+     * Returns the file storing the fingerprint of the inputs of the last run,
+     * removed with the other temporary files of maven-debian-helper.
+     */
+    File getFingerprintFile() {
+        return new File(outputDirectory, ".mh/" + packageName + ".fingerprint");
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of the solver: the options, the list of POMs,
+     * the rules files, the project POMs, the layout of the Maven repository and the dpkg status.
+     */
+    InputFingerprint getInputFingerprint(boolean offline) throws IOException {
+        InputFingerprint fingerprint = new InputFingerprint();
+        fingerprint.add(packageName);
+        fingerprint.add(packageType);
+        fingerprint.add(runTests + " " + generateJavadoc + " " + exploreProjects + " " + offline);
+        fingerprint.add(String.valueOf(mavenRepo));
+
+        fingerprint.addFile(pomTransformer.getListOfPOMs().getListOfPOMsFile());
+        for (RulesType type : RulesType.values()) {
+            if (type.filename != null) {
+                fingerprint.addFile(new File(outputDirectory, type.filename));
+            }
+        }
+
+        Set<File> poms = new TreeSet<File>();
+        findProjectPoms(baseDir, poms);
+        for (String pom : pomTransformer.getListOfPOMs().getPomOptions().keySet()) {
+            poms.add(new File(baseDir, pom));
+        }
+        for (File pom : poms) {
+            fingerprint.addFile(pom);
+        }
+
+        if (mavenRepo != null) {
+            fingerprint.addDirectoryTree(mavenRepo);
+        }
+        fingerprint.addTimestamp(DpkgStatus.DPKG_STATUS_FILE);
+        return fingerprint;
+    }
+
+    private static void findProjectPoms(File dir, Set<File> poms) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                if (!name.startsWith(".") && !name.equals("debian") && !name.equals("target")) {
+                    findProjectPoms(file, poms);
+                }
+            } else if (name.equals("pom.xml")) {
+                poms.add(file);
+            }
+        }
+    }
+
     public void setBaseDir(File baseDir) {
         this.baseDir = baseDir;
         if (pomTransformer.getListOfPOMs() != null) {
@@ -229,17 +505,134 @@ public class DependenciesSolver {
     private Repository getRepository() {
         if (repository == null && mavenRepo != null) {
             repository = new Repository(mavenRepo);
-            repository.scan();
+            long start = Trace.now();
+            if (interactive) {
+                // only the interactive mode rescans the repository
+                repositoryMonitor = new RepositoryMonitor(mavenRepo);
+            }
+            if (repositorySnapshot != null) {
+                loadRepository();
+            } else {
+                repository.scan();
+            }
+            Trace.event("phase", "scan the repository", start);
         }
         return repository;
     }
 
+    /**
+     * Fills the repository with the POMs of the snapshot saved by a previous run,
+     * or reads the POMs of the repository and saves them in a new snapshot.
+     * This happens before any POM of the project is registered in the repository.
+     */
+    private void loadRepository() {
+        String key = RepositorySnapshot.getKey(mavenRepo);
+        RepositorySnapshot snapshot = RepositorySnapshot.load(repositorySnapshot, key);
+        Trace.cache("repositorySnapshot", snapshot != null);
+        if (snapshot == null) {
+            snapshot = new RepositorySnapshot();
+            List<File> pomFiles = new ArrayList<File>();
+            findRepositoryPoms(mavenRepo, pomFiles);
+            for (File pomFile : pomFiles) {
+                try {
+                    snapshot.add(pomFile, pomTransformer.readPom(pomFile));
+                } catch (Exception e) {
+                    log.log(Level.WARNING, "Cannot read " + pomFile + ": " + e.getMessage());
+                }
+            }
+            snapshot.save(repositorySnapshot, key);
+        } else if (verbose) {
+            System.out.println("Loaded " + snapshot.size() + " POMs from the snapshot of " + mavenRepo);
+        }
+        for (Map.Entry<File, POMInfo> entry : snapshot.getPoms()) {
+            repository.registerPom(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void findRepositoryPoms(File dir, List<File> poms) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isDirectory()) {
+                findRepositoryPoms(file, poms);
+            } else if (file.getName().endsWith(".pom")) {
+                poms.add(file);
+            }
+        }
+    }
+
+    /**
+     * Updates the repository after a package has been installed, for example by
+     * the user in another terminal. Only the new POMs are read, unless some POMs
+     * were removed or modified.
+     */
+    private void rescanRepository() {
+        System.out.println("Rescanning " + mavenRepo + "...");
+        long start = Trace.now();
+        List<File> addedPoms = repositoryMonitor != null ? repositoryMonitor.getAddedPoms() : null;
+        if (addedPoms == null) {
+            getRepository().scan();
+        } else {
+            for (File pomFile : addedPoms) {
+                try {
+                    getRepository().registerPom(pomFile, pomTransformer.readPom(pomFile));
+                } catch (Exception e) {
+                    log.log(Level.WARNING, "Cannot read " + pomFile + ": " + e.getMessage());
+                }
+            }
+        }
+        getVersionIndex().clear();
+        pomSearches.clear();
+        Trace.event("phase", "rescan the repository", start);
+    }
+
+    private synchronized VersionIndex getVersionIndex() {
+        if (versionIndex == null) {
+            versionIndex = new VersionIndex(mavenRepo);
+        }
+        return versionIndex;
+    }
+
+    /**
+     * Searches the POM matching the dependency in the repository.
+     * <p>
+     * Repository isn't documented as thread safe and the modules are resolved
+     * concurrently, so the searches are serialized. The POMs are only registered
+     * while no resolution runs in the background: when the modules are analysed,
+     * when the resolutions are applied, and when the repository is rescanned in
+     * interactive mode.
+     */
+    private POMInfo searchMatchingPOM(Dependency dependency) {
+        Repository repository = getRepository();
+        synchronized (repositoryLock) {
+            return repository.searchMatchingPOM(dependency);
+        }
+    }
+
+    /**
+     * Returns the POMs in the repository matching the dependency with any version, the best version first.
+     */
+    private List<POMInfo> searchMatchingPOMsIgnoreVersion(Dependency dependency) {
+        List<POMInfo> poms = new ArrayList<POMInfo>();
+        for (String version : getVersionIndex().getVersions(dependency.getGroupId(), dependency.getArtifactId())) {
+            POMInfo pom = searchMatchingPOM(dependency.builder().setVersion(version).build());
+            if (pom != null && pom.getThisPom().equalsIgnoreVersion(dependency) && !poms.contains(pom)) {
+                poms.add(pom);
+            }
+        }
+        return poms;
+    }
+
     public void solveDependencies() {
         pomTransformer.setRepository(getRepository());
         pomTransformer.usePluginVersionsFromRepository();
 
         IOUtil.mkDirIfNotExists(outputDirectory);
 
+        long start = Trace.now();
         if (exploreProjects) {
             File pom;
             if (pomTransformer.getListOfPOMs().getPomOptions().isEmpty()) {
@@ -258,22 +651,43 @@ public class DependenciesSolver {
             } else {
                 pom = new File(baseDir, pomTransformer.getListOfPOMs().getFirstPOM());
             }
+            if (!interactive) {
+                parsePOMs(Collections.singletonList(pom));
+            }
+            long walkStart = Trace.now();
             resolveDependencies(pom);
+            Trace.event("phase", "analyse the modules", walkStart);
         } else {
+            final List<File> poms = new ArrayList<File>();
             pomTransformer.getListOfPOMs().foreachPoms(new POMHandler() {
 
                 public void handlePOM(File pomFile, boolean noParent, boolean hasPackageVersion) throws Exception {
-                    resolveDependencies(pomFile);
+                    poms.add(pomFile);
                 }
 
                 public void ignorePOM(File pomFile) throws Exception {
                 }
             });
+            if (!interactive) {
+                parsePOMs(poms);
+            }
+            long walkStart = Trace.now();
+            for (File pom : poms) {
+                resolveDependencies(pom);
+            }
+            Trace.event("phase", "analyse the modules", walkStart);
         }
 
-        for (ToResolve tr : toResolve) {
-            tr.resolve();
+        long resolutionStart = Trace.now();
+        if (interactive || !resolveConcurrently) {
+            for (ToResolve tr : toResolve) {
+                tr.resolve();
+            }
+        } else {
+            resolveConcurrently(toResolve);
         }
+        Trace.event("phase", "resolve the dependencies", resolutionStart);
+        Trace.event("phase", "solve the dependencies", start);
 
         if (!issues.isEmpty()) {
             System.err.println("ERROR:");
@@ -284,6 +698,38 @@ public class DependenciesSolver {
         }
     }
 
+    /**
+     * Resolves the dependencies of the modules concurrently. Nothing is asked to the user,
+     * the results are merged in the original order and are identical to a serial resolution.
+     */
+    private void resolveConcurrently(List<ToResolve> toResolve) {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<List<Resolution>>> results = new ArrayList<Future<List<Resolution>>>();
+            for (final ToResolve tr : toResolve) {
+                results.add(executor.submit(new Callable<List<Resolution>>() {
+                    public List<Resolution> call() {
+                        return tr.resolveInBackground();
+                    }
+                }));
+            }
+            // wait for all the modules before changing the collections read by the resolutions
+            List<List<Resolution>> resolutions = new ArrayList<List<Resolution>>();
+            for (Future<List<Resolution>> result : results) {
+                resolutions.add(result.get());
+            }
+            for (int i = 0; i < toResolve.size(); i++) {
+                toResolve.get(i).apply(resolutions.get(i));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private void resolveDependencies(File projectPom) {
 
         if (pomTransformer.getListOfPOMs().getOrCreatePOMOptions(projectPom) != null && pomTransformer.getListOfPOMs().getOrCreatePOMOptions(projectPom).isIgnore()) {
@@ -313,7 +759,7 @@ public class DependenciesSolver {
                 pom.setParent(parent);
                 // If the parent is found, search the parent POM and update current POM 
                 if (parent != null) {
-                    POMInfo parentPOM = getRepository().searchMatchingPOM(parent);
+                    POMInfo parentPOM = searchMatchingPOM(parent);
                     pom.setParentPOM(parentPOM);
                 }
             }
@@ -326,6 +772,9 @@ public class DependenciesSolver {
                 testPom.getThisPom().setType("test-jar");
                 getRepository().registerPom(projectPom, testPom);
             }
+            getVersionIndex().register(pom.getThisPom());
+            // the new POMs may match the dependencies searched previously
+            pomSearches.clear();
 
             knownProjectDependencies.add(pom.getThisPom());
 
@@ -347,7 +796,7 @@ public class DependenciesSolver {
                 boolean includeModule = new YesNoQuestion("Include the module " + IOUtil.relativePath(baseDir, projectPom) + " ?", true).ask();
                 if (!includeModule) {
                     pomTransformer.getListOfPOMs().getOrCreatePOMOptions(projectPom).setIgnore(true);
-                    pomTransformer.getRulesFiles().get(IGNORE).add(DependencyRule.newToMatch(pom.getThisPom()));
+                    addToRulesFiles(IGNORE, Collections.singleton(DependencyRule.newToMatch(pom.getThisPom())));
                     return;
                 }
             }
@@ -356,12 +805,16 @@ public class DependenciesSolver {
 
             // Previous rule from another run
             boolean explicitlyMentionedInRules = false;
-            for (DependencyRule previousRule : pomTransformer.getRulesFiles().get(RULES).findMatchingRules(pom.getThisPom())) {
+            long rulesStart = Trace.now();
+            for (DependencyRule previousRule : getRuleIndex(RULES).findMatchingRules(pom.getThisPom())) {
                 if (!previousRule.explicitlyMentions(pom.getThisPom())) {
                     explicitlyMentionedInRules = true;
                     break;
                 }
             }
+            if (Trace.isEnabled()) {
+                Trace.event("rules", pom.getThisPom().toString(), rulesStart);
+            }
 
             if (interactive && !explicitlyMentionedInRules && !pom.getThisPom().isPlugin()) {
                 Rule selectedRule = askForVersionRule(pom.getThisPom());
@@ -372,10 +825,12 @@ public class DependenciesSolver {
                     defaultRules.add(selectedRule);
                 }
 
-                pomTransformer.getRulesFiles().get(RULES).add(new DependencyRule(pom.getThisPom().getGroupId(), 
-                    pom.getThisPom().getArtifactId(), pom.getThisPom().getType(), selectedRule.toString()));
+                addToRulesFiles(RULES, Collections.singleton(new DependencyRule(pom.getThisPom().getGroupId(),
+                    pom.getThisPom().getArtifactId(), pom.getThisPom().getType(), selectedRule.toString())));
                 POMInfo transformedPom = pom.newPOMFromRules(pomTransformer.getRulesFiles().get(RULES).getRules(), getRepository());
                 getRepository().registerPom(projectPom, transformedPom);
+                getVersionIndex().register(transformedPom.getThisPom());
+                pomSearches.clear();
                 projectPoms.add(transformedPom.getThisPom());
 
                 if (pom.getThisPom().isBundle()) {
@@ -388,13 +843,13 @@ public class DependenciesSolver {
                     if (transformJarsIntoBundle) {
                         String transformBundleRule = pom.getThisPom().getGroupId() + " " + pom.getThisPom().getArtifactId()
                                 + " s/jar/bundle/ " + selectedRule.toString();
-                        pomTransformer.getRulesFiles().get(PUBLISHED).add(new DependencyRule(transformBundleRule));
+                        addToRulesFiles(PUBLISHED, Collections.singleton(new DependencyRule(transformBundleRule)));
                     }
                 }
             }
 
             if (pom.getParent() != null && !pom.getParent().isSuperPom()) {
-                POMInfo parentPom = getRepository().searchMatchingPOM(pom.getParent());
+                POMInfo parentPom = searchMatchingPOM(pom.getParent());
                 if (parentPom == null || parentPom.equals(getRepository().getSuperPOM())) {
                     pomTransformer.getListOfPOMs().getOrCreatePOMOptions(projectPom).setNoParent(true);
                 }
@@ -424,6 +879,7 @@ public class DependenciesSolver {
         } catch (Exception ex) {
             log.log(Level.SEVERE, "Error while resolving " + projectPom + ": " + ex.getMessage());
             log.log(Level.SEVERE, "", ex);
+            Trace.save();
             System.exit(1);
         }
     }
@@ -482,27 +938,91 @@ public class DependenciesSolver {
         return rules;
     }
 
-    private POMInfo getPOM(File projectPom) throws XMLStreamException, IOException {
+    private synchronized POMInfo getPOM(File projectPom) throws XMLStreamException, IOException {
         POMInfo info = pomInfoCache.get(projectPom.getAbsolutePath());
+        Trace.cache("poms", info != null);
         if (info != null) {
             return info;
         }
-        File tmpDest = File.createTempFile("pom", ".tmp", baseDir);
-        tmpDest.deleteOnExit();
-        POMOptions options = pomTransformer.getListOfPOMs().getOrCreatePOMOptions(projectPom);
-        boolean noParent = false;
-        boolean hasPackageVersion = false;
-        if (options != null) {
-            noParent = options.isNoParent();
-            hasPackageVersion = options.getHasPackageVersion();
-        }
-
-        info = pomTransformer.transformPom(projectPom, tmpDest, noParent, hasPackageVersion, false, false, null, null, true);
+        info = transformPom(projectPom, pomTransformer.getListOfPOMs().getOrCreatePOMOptions(projectPom));
         pomInfoCache.put(projectPom.getAbsolutePath(), info);
         return info;
     }
 
-    private POMInfo getOriginalPOM(File projectPom) throws XMLStreamException, IOException {
+    /**
+     * Reads the POM and applies the rules and the options to its POMInfo like
+     * POMTransformer.transformPom() does, but without writing the transformed
+     * document: the solver only needs the POMInfo. The properties are set by
+     * resolveDependencies().
+     */
+    private POMInfo transformPom(File projectPom, POMOptions options) throws XMLStreamException, IOException {
+        POMInfo info = pomTransformer.readPom(projectPom);
+        // the rules may search the repository, see searchMatchingPOM()
+        synchronized (repositoryLock) {
+            info = info.newPOMFromRules(pomTransformer.getRulesFiles().get(RULES).getRules(), pomTransformer.getRepository());
+        }
+        if (options != null && options.isNoParent()) {
+            info.setParent(null);
+        }
+        return info;
+    }
+
+    /**
+     * Parses concurrently the POMs specified and, when the projects are explored,
+     * their modules level by level. The POMs are cached for resolveDependencies().
+     * The repository and the rules are only read at this point, the options of
+     * the POMs aren't created to keep their order in the list of POMs.
+     */
+    private void parsePOMs(List<File> projectPoms) {
+        long start = Trace.now();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<File> poms = projectPoms;
+            while (!poms.isEmpty()) {
+                Map<File, Future<POMInfo>> results = new LinkedHashMap<File, Future<POMInfo>>();
+                for (final File pom : poms) {
+                    final POMOptions options = pomTransformer.getListOfPOMs().getPOMOptions(pom);
+                    if (!pom.exists() || (options != null && options.isIgnore()) || pomInfoCache.containsKey(pom.getAbsolutePath())) {
+                        continue;
+                    }
+                    results.put(pom, executor.submit(new Callable<POMInfo>() {
+                        public POMInfo call() throws Exception {
+                            return transformPom(pom, options);
+                        }
+                    }));
+                }
+
+                List<File> modules = new ArrayList<File>();
+                for (Map.Entry<File, Future<POMInfo>> result : results.entrySet()) {
+                    File pom = result.getKey();
+                    POMInfo info;
+                    try {
+                        info = result.getValue().get();
+                    } catch (ExecutionException e) {
+                        // the error is reported when the POM is parsed again by resolveDependencies()
+                        log.log(Level.FINE, "Unable to parse " + pom, e.getCause());
+                        continue;
+                    }
+                    synchronized (this) {
+                        pomInfoCache.put(pom.getAbsolutePath(), info);
+                    }
+                    if (exploreProjects) {
+                        for (String module : info.getModules()) {
+                            modules.add(new File(pom.getParent(), module + "/pom.xml"));
+                        }
+                    }
+                }
+                poms = modules;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            Trace.event("phase", "parse the POMs", start);
+        }
+    }
+
+    private synchronized POMInfo getOriginalPOM(File projectPom) throws XMLStreamException, IOException {
         POMInfo info = originalPomInfoCache.get(projectPom.getAbsolutePath());
         if (info != null) {
             return info;
@@ -513,16 +1033,16 @@ public class DependenciesSolver {
         return info;
     }
 
-    private static boolean canBeSkippedBecauseAntIsUsedForPackaging(Dependency thisPom, String packageType, Dependency dependency, boolean runTests, boolean verbose) {
+    private boolean canBeSkippedBecauseAntIsUsedForPackaging(Dependency thisPom, String packageType, Dependency dependency, boolean runTests, boolean verbose) {
         if (!packageType.equals("ant")) return false;
 
         if (dependency.isPlugin() && !thisPom.isPom()) {
-            if(verbose) System.out.println("[skipped - Maven plugins are not used during a build with Ant]");
+            if (verbose) println("[skipped - Maven plugins are not used during a build with Ant]");
             return true;
         }
 
         if (!runTests && "test".equals(dependency.getScope())) {
-            if(verbose) System.out.println("[skipped - Tests are not executed during the build]");
+            if (verbose) println("[skipped - Tests are not executed during the build]");
             return true;
         }
 
@@ -531,11 +1051,11 @@ public class DependenciesSolver {
 
     private Dependency resolveDependency(Dependency dependency, File sourcePom, boolean buildTime, boolean mavenExtension, boolean management, boolean resolvingParent) throws DependencyNotFoundException {
 
-        if (containsDependencyIgnoreVersion(knownProjectDependencies, dependency)) {
+        if (knownProjectDependencies.containsIgnoreVersion(dependency)) {
             return dependency;
         }
 
-        if (containsDependencyIgnoreVersion(ignoredDependencies, dependency) ||
+        if (ignoredDependencies.containsIgnoreVersion(dependency) ||
                 (management && isDefaultMavenPlugin(dependency))) {
             return null;
         }
@@ -546,15 +1066,14 @@ public class DependenciesSolver {
 
         String sourcePomLoc = sourcePom.getName();
         if (verbose) {
-             System.out.println("Resolving " + dependency + (dependency.getScope() == null ? "" : " of scope " + dependency.getScope()) + "...");
+             println("Resolving " + dependency + (dependency.getScope() == null ? "" : " of scope " + dependency.getScope()) + "...");
         }
 
         // First let the packager mark as ignored those dependencies which should be ignored
         if (ignoreDependencyQuestion.askIgnoreUnnecessaryDependency(dependency, sourcePomLoc, runTests, generateJavadoc)) {
-            ignoredDependencies.add(dependency);
-            pomTransformer.getRulesFiles().get(IGNORE).add(new DependencyRule(dependency.getGroupId(), dependency.getArtifactId(), "*", "*"));
+            ignore(dependency);
             if (verbose) {
-                System.out.println("[ignored]");
+                println("[ignored]");
             }
             return null;
         }
@@ -565,9 +1084,9 @@ public class DependenciesSolver {
             if (canBeSkippedBecauseAntIsUsedForPackaging(getPOM(sourcePom).getThisPom(), packageType, dependency, runTests, verbose)) {
                 // Even if we skip the dependency, try to locate its associated maven rules,
                 // as this may be useful later - but never fail if the dependency is not found.
-                POMInfo pom = getRepository().searchMatchingPOM(dependency);
+                POMInfo pom = searchMatchingPOM(dependency);
                 if (pom != null) {
-                    pomTransformer.getRulesFiles().get(RULES).addAll(pom.getPublishedRules());
+                    addRules(RULES, pom.getPublishedRules());
                 }
 
                 return null;
@@ -575,111 +1094,65 @@ public class DependenciesSolver {
         } catch (XMLStreamException e) { e.printStackTrace(); // TODO Auto-generated catch block
         } catch (IOException e) { e.printStackTrace(); }
 
-        POMInfo pom = getRepository().searchMatchingPOM(dependency);
-        try {
-            if (pom == null && dependency.getVersion() == null) {
-                POMInfo containerPom = getPOM(sourcePom);
-                String version = containerPom.getVersionFromManagementDependency(dependency);
-                dependency.setVersion(version);
-                if (version != null) {
-                    pom = getRepository().searchMatchingPOM(dependency);
-                } else {
-                    System.out.println("In " + sourcePomLoc + ", cannot find the version for dependency " + dependency + " from this POM or its parent POMs");
-                    if (pomTransformer.getListOfPOMs().getOrCreatePOMOptions(sourcePom).isNoParent()) {
-                        Dependency originalParent = getOriginalPOM(sourcePom).getParent();
-                        System.out.println("[warning] Option --no-parent has been set for POM file " + sourcePomLoc + ", maybe it was not a good idea and you should first package the parent POM " + originalParent);
-                    }
-                }
+        // The search in the repository doesn't depend on the module declaring the dependency,
+        // except for the version inherited from the dependency management
+        String managedVersion = null;
+        if (dependency.getVersion() == null) {
+            try {
+                managedVersion = getPOM(sourcePom).getVersionFromManagementDependency(dependency);
+            } catch (Exception e) {
+                e.printStackTrace();
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
-        if (pom == null && dependency.getVersion() != null) {
-            List<POMInfo> poms = getRepository().searchMatchingPOMsIgnoreVersion(dependency);
-            for (POMInfo potentialPom : poms) {
-                for(DependencyRule rule : potentialPom.getPublishedRules()) {
-                    if (rule.matches(dependency) && rule.apply(dependency).equals(potentialPom.getThisPom())) {
-                        pom = potentialPom;
-                        pomTransformer.getRulesFiles().get(RULES).add(rule);
-                    }
-                }
-            }
+        String searchKey = dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getType() + ":"
+                + dependency.getClassifier() + ":" + dependency.getVersion() + ":" + managedVersion + ":" + management;
+        PomSearch search = pomSearches.get(searchKey);
+        Trace.cache("repositorySearches", search != null);
+        if (search == null) {
+            search = searchPOM(dependency, managedVersion, management);
+            pomSearches.put(searchKey, search);
         }
-        if (pom == null && dependency.getVersion() == null) {
-            // Set a dummy version and try again
-            for (int version = 0; version < 10; version++) {
-                dependency.setVersion(version + ".0");
-                pom = getRepository().searchMatchingPOM(dependency);
-                if (pom != null) {
-                    System.out.println("Use best guess version: " + dependency.getVersion() + " for "
-                      + dependency.getGroupId() + ":" + dependency.getArtifactId());
-                    break;
+
+        if (search.versionNotFound) {
+            println("In " + sourcePomLoc + ", cannot find the version for dependency " + dependency + " from this POM or its parent POMs");
+            if (pomTransformer.getListOfPOMs().getOrCreatePOMOptions(sourcePom).isNoParent()) {
+                try {
+                    Dependency originalParent = getOriginalPOM(sourcePom).getParent();
+                    println("[warning] Option --no-parent has been set for POM file " + sourcePomLoc + ", maybe it was not a good idea and you should first package the parent POM " + originalParent);
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
-                dependency.setVersion(null);
             }
         }
-
-        if (pom == null && dependency.isPlugin()) {
-            List<POMInfo> matchingPoms = getRepository().searchMatchingPOMsIgnoreVersion(dependency);
-            if (matchingPoms.size() > 1) {
-                issues.add(sourcePomLoc + ": More than one version matches the plugin " + dependency.getGroupId() + ":"
-                        + dependency.getArtifactId() + ":" + dependency.getVersion());
-            }
-            if (!matchingPoms.isEmpty()) {
-                pom = matchingPoms.get(0);
-                // Don't add a rule to force the version of a Maven plugin, it's now done
-                // automatically at build time
-            }
+        search.replay();
+        if (search.severalPluginVersions) {
+            addIssue(sourcePomLoc + ": More than one version matches the plugin " + dependency.getGroupId() + ":"
+                    + dependency.getArtifactId() + ":" + search.version);
         }
-
-        // Ignore fast cases
-        if (pom == null) {
-            if (management) {
-                if (verbose) System.out.println("[skipped dependency or plugin management]");
-                return null;
-            } else if (dependency.isPlugin() && packageType.equals("ant")) {
-                if (verbose) System.out.println("[skipped - not used in Ant build]");
-                return null;
+        if (dependency.getVersion() == null) {
+            Resolution resolution = currentResolution.get();
+            if (resolution == null) {
+                dependency.setVersion(search.version);
+            } else {
+                // the dependency belongs to a POM read by the other threads, it's updated when the resolution is applied
+                resolution.versions.put(dependency, search.version);
+                dependency = new Dependency(dependency);
+                dependency.setVersion(search.version);
             }
         }
-
-        // In case we didn't find anything for "jar" packaging type, just check for a "bundle" type inside repository.
-        // Some jars have been upgraded to OSGi bundles as OSGi metadata has been added to them.
-        //
-        // drazzib: I'm not sure this is really the right way to fix that (ie. maybe we should install "bundle" artifacts
-        // directly with "jar" type inside Debian ?).
-        //
-        // ludovicc: a complex issue, I believe that libraries which evolve from a jar type to a bundle type should
-        // inform packagers with a rule of the form
-        // '<groupId> <artifactId> s/jar/bundle/ <versionRule>'
-        // in other words, the packager of the library should add a published rule which will transform matching
-        // libraries from jar type into bundle types, and apply as well the version substitution (for example to 2.x)
-        // for Debian.
-        //
-        if (pom == null && dependency.isJar()) {
-            if (verbose) System.out.println("[check dependency with bundle type]");
-
-            Dependency bundleDependency = dependency.builder().setType("bundle").build();
-            pom = getRepository().searchMatchingPOM(bundleDependency);
-            if (pom != null) {
-                dependency = bundleDependency;
-                for (DependencyRule rule: pom.getPublishedRules()) {
-                    if (rule.matchesAndPreservesGroupArtifactAndType(dependency)) {
-                        pomTransformer.getRulesFiles().get(RULES).add(new DependencyRule(
-                            pom.getThisPom().getGroupId(),
-                            pom.getThisPom().getArtifactId(),
-                            "s/jar/bundle/",
-                            rule.getVersionRule().toString()));
-                    }
-                }
-            }
+        if (search.skipped) {
+            return null;
         }
+        if (search.bundle) {
+            dependency = dependency.builder().setType("bundle").build();
+        }
+        POMInfo pom = search.pom;
 
         if (pom == null) {
             if (resolvingParent && ignoreDependencyQuestion.askIgnoreDependency(sourcePomLoc, dependency,
                     "The parent POM cannot be found in the Maven repository for Debian. Ignore it?")) {
                 pomTransformer.getListOfPOMs().getOrCreatePOMOptions(sourcePom).setNoParent(true);
-                if (verbose) System.out.println("[no-parent]");
+                if (verbose) println("[no-parent]");
                 return null;
             }
             boolean ignoreDependency = ignoreDependencyQuestion.askIgnoreDocOrReportPlugin(sourcePomLoc, dependency);
@@ -688,13 +1161,12 @@ public class DependenciesSolver {
                 if(issue.isEmpty()) {
                     ignoreDependency = true;
                 } else {
-                    issues.add(issue);
+                    addIssue(issue);
                 }
             }
             if (ignoreDependency) {
-                ignoredDependencies.add(dependency);
-                pomTransformer.getRulesFiles().get(IGNORE).add(new DependencyRule(dependency.getGroupId(), dependency.getArtifactId(), "*", "*"));
-                if (verbose) System.out.println("[ignored]");
+                ignore(dependency);
+                if (verbose) println("[ignored]");
                 return null;
             }
 
@@ -703,13 +1175,13 @@ public class DependenciesSolver {
             if (pkg != null) {
                 String installedVersion = scanner.getPackageVersion(pkg, true);
                 if (installedVersion != null) {
-                    System.out.println("[error] Package " + pkg + " (" + installedVersion + ") is already installed and contains a possible match," );
-                    System.out.println("but I cannot resolve library " + dependency + " in it.");
-                    System.out.println("[error] Please check manually that the library is up to date, otherwise it may be necessary to package version "
+                    println("[error] Package " + pkg + " (" + installedVersion + ") is already installed and contains a possible match," );
+                    println("but I cannot resolve library " + dependency + " in it.");
+                    println("[error] Please check manually that the library is up to date, otherwise it may be necessary to package version "
                             + dependency.getVersion() + " in Debian.");
                 } else {
-                    System.out.println("[warning] Please install the missing dependency. Run the following command in another terminal:");
-                    System.out.println("  sudo apt-get install " + pkg);
+                    println("[warning] Please install the missing dependency. Run the following command in another terminal:");
+                    println("  sudo apt-get install " + pkg);
                 }
             }
 
@@ -722,7 +1194,7 @@ public class DependenciesSolver {
                     String newRule = new SimpleQuestion(question).ask();
                     if (!newRule.isEmpty()) {
                         DependencyRule userRule = new DependencyRule(newRule);
-                        pomTransformer.getRulesFiles().get(RULES).add(userRule);
+                        addToRulesFiles(RULES, Collections.singleton(userRule));
                         System.out.println("Please suggest the maintainer of package " + pkg + " to add this rule to debian/maven.publishedRules");
                         return resolveDependency(dependency.applyRules(Arrays.asList(userRule)), sourcePom, buildTime, mavenExtension, management, false);
                     }
@@ -738,9 +1210,8 @@ public class DependenciesSolver {
                              + "Please enter a substitution rule of the form s/groupId/newGroupId/ s/artifactId/newArtifactId/ jar s/version/newVersion/ here,"
                              + "or press <Enter> to give up").ask();
                         } else {
-                            pomTransformer.getRulesFiles().get(RULES).add(userRule);
-                            System.out.println("Rescanning /usr/share/maven-repo...");
-                            pomTransformer.getRepository().scan();
+                            addToRulesFiles(RULES, Collections.singleton(userRule));
+                            rescanRepository();
                             return resolveDependency(dependency.applyRules(Arrays.asList(userRule)), sourcePom, buildTime, mavenExtension, management, false);
                         }
                     }
@@ -748,14 +1219,13 @@ public class DependenciesSolver {
             }
 
             if (interactive && new YesNoQuestion("Try again to resolve the dependency?", true).ask()) {
-                System.out.println("Rescanning /usr/share/maven-repo...");
-                pomTransformer.getRepository().scan();
+                rescanRepository();
                 // Clear caches
                 scanner = scanner.newInstanceWithFreshCaches();
                 return resolveDependency(dependency, sourcePom, buildTime, mavenExtension, management, false);
             }
 
-            if (verbose) System.out.println("[error]");
+            if (verbose) println("[error]");
 
             throw new DependencyNotFoundException(dependency);
         }
@@ -763,9 +1233,9 @@ public class DependenciesSolver {
         // Handle the case of Maven plugins built and used in a multi-module build:
         // they need to be added to maven.cleanIgnoreRules to avoid errors during
         // a mvn clean
-        if (dependency.isPlugin() && containsDependencyIgnoreVersion(projectPoms, dependency)) {
+        if (dependency.isPlugin() && projectPoms.containsIgnoreVersion(dependency)) {
             String ruleDef = dependency.getGroupId() + " " + dependency.getArtifactId() + " maven-plugin *";
-            pomTransformer.getRulesFiles().get(CLEAN).add(new DependencyRule(ruleDef));
+            addRule(CLEAN, new DependencyRule(ruleDef));
         }
 
         // Discover the library to import for the dependency
@@ -785,37 +1255,37 @@ public class DependenciesSolver {
             if (!management) {
                 if (buildTime) {
                     if ("test".equals(dependency.getScope())) {
-                        debianDeps.add(TEST, libraryWithVersionConstraint);
+                        addDebianDependency(TEST, libraryWithVersionConstraint);
                     } else if (dependency.isPlugin()) {
                         if (!packageType.equals("ant")) {
-                            debianDeps.add(COMPILE, libraryWithVersionConstraint);
+                            addDebianDependency(COMPILE, libraryWithVersionConstraint);
                         }
                     } else if (mavenExtension) {
                         if (!packageType.equals("ant")) {
-                            debianDeps.add(COMPILE, libraryWithVersionConstraint);
+                            addDebianDependency(COMPILE, libraryWithVersionConstraint);
                         }
                     } else {
-                        debianDeps.add(COMPILE, libraryWithVersionConstraint);
+                        addDebianDependency(COMPILE, libraryWithVersionConstraint);
                     }
                 } else {
                     if ("test".equals(dependency.getScope())) {
-                        debianDeps.add(TEST, libraryWithVersionConstraint);
+                        addDebianDependency(TEST, libraryWithVersionConstraint);
                     } else if (dependency.isOptional()) {
-                        debianDeps.add(OPTIONAL, libraryWithVersionConstraint);
+                        addDebianDependency(OPTIONAL, libraryWithVersionConstraint);
                     } else if (!"provided".equals(dependency.getScope())) {
-                        debianDeps.add(RUNTIME, libraryWithVersionConstraint);
+                        addDebianDependency(RUNTIME, libraryWithVersionConstraint);
                     }
                 }
             }
-            versionedPackagesAndDependencies.put(libraryWithVersionConstraint, dependency);
+            addVersionedPackage(libraryWithVersionConstraint, dependency);
         }
 
-        pomTransformer.getRulesFiles().get(RULES).addAll(pom.getPublishedRules());
+        addRules(RULES, pom.getPublishedRules());
 
         if (verbose) {
-            System.out.println("Dependency " + dependency + " found in package " + pkg);
-            System.out.println("[ok]");
-            System.out.println();
+            println("Dependency " + dependency + " found in package " + pkg);
+            println("[ok]");
+            println("");
         }
 
         if (resolvingParent) {
@@ -830,6 +1300,118 @@ public class DependenciesSolver {
         return pom.getThisPom();
     }
 
+    /**
+     * Searches the POM of the dependency in the repository. The messages displayed
+     * and the rules added are recorded to be replayed for the other modules.
+     *
+     * @param managedVersion the version defined in the dependency management of the module, if the dependency has no version
+     */
+    private PomSearch searchPOM(Dependency declaredDependency, String managedVersion, boolean management) {
+        PomSearch search = new PomSearch();
+        Dependency dependency = new Dependency(declaredDependency);
+        Resolution resolution = currentResolution.get();
+        currentResolution.set(search.effects);
+        try {
+            POMInfo pom = searchMatchingPOM(dependency);
+            if (pom == null && dependency.getVersion() == null) {
+                dependency.setVersion(managedVersion);
+                if (managedVersion != null) {
+                    pom = searchMatchingPOM(dependency);
+                } else {
+                    search.versionNotFound = true;
+                }
+            }
+            if (pom == null && dependency.getVersion() != null) {
+                List<POMInfo> poms = searchMatchingPOMsIgnoreVersion(dependency);
+                for (POMInfo potentialPom : poms) {
+                    for(DependencyRule rule : potentialPom.getPublishedRules()) {
+                        if (rule.matches(dependency) && rule.apply(dependency).equals(potentialPom.getThisPom())) {
+                            pom = potentialPom;
+                            addRule(RULES, rule);
+                        }
+                    }
+                }
+            }
+            if (pom == null && dependency.getVersion() == null) {
+                // Try the versions available, the best first
+                for (String version : getVersionIndex().getVersions(dependency.getGroupId(), dependency.getArtifactId())) {
+                    dependency.setVersion(version);
+                    pom = searchMatchingPOM(dependency);
+                    if (pom != null) {
+                        println("Use best guess version: " + dependency.getVersion() + " for "
+                          + dependency.getGroupId() + ":" + dependency.getArtifactId());
+                        break;
+                    }
+                    dependency.setVersion(null);
+                }
+            }
+
+            if (pom == null && dependency.isPlugin()) {
+                List<POMInfo> matchingPoms = searchMatchingPOMsIgnoreVersion(dependency);
+                search.severalPluginVersions = matchingPoms.size() > 1;
+                if (!matchingPoms.isEmpty()) {
+                    pom = matchingPoms.get(0);
+                    // Don't add a rule to force the version of a Maven plugin, it's now done
+                    // automatically at build time
+                }
+            }
+
+            // Ignore fast cases
+            if (pom == null) {
+                if (management) {
+                    if (verbose) println("[skipped dependency or plugin management]");
+                    search.skipped = true;
+                } else if (dependency.isPlugin() && packageType.equals("ant")) {
+                    if (verbose) println("[skipped - not used in Ant build]");
+                    search.skipped = true;
+                }
+            }
+
+            // In case we didn't find anything for "jar" packaging type, just check for a "bundle" type inside repository.
+            // Some jars have been upgraded to OSGi bundles as OSGi metadata has been added to them.
+            //
+            // drazzib: I'm not sure this is really the right way to fix that (ie. maybe we should install "bundle" artifacts
+            // directly with "jar" type inside Debian ?).
+            //
+            // ludovicc: a complex issue, I believe that libraries which evolve from a jar type to a bundle type should
+            // inform packagers with a rule of the form
+            // '<groupId> <artifactId> s/jar/bundle/ <versionRule>'
+            // in other words, the packager of the library should add a published rule which will transform matching
+            // libraries from jar type into bundle types, and apply as well the version substitution (for example to 2.x)
+            // for Debian.
+            //
+            if (pom == null && !search.skipped && dependency.isJar()) {
+                if (verbose) println("[check dependency with bundle type]");
+
+                Dependency bundleDependency = dependency.builder().setType("bundle").build();
+                pom = searchMatchingPOM(bundleDependency);
+                if (pom != null) {
+                    dependency = bundleDependency;
+                    search.bundle = true;
+                    for (DependencyRule rule: pom.getPublishedRules()) {
+                        if (rule.matchesAndPreservesGroupArtifactAndType(dependency)) {
+                            addRule(RULES, new DependencyRule(
+                                pom.getThisPom().getGroupId(),
+                                pom.getThisPom().getArtifactId(),
+                                "s/jar/bundle/",
+                                rule.getVersionRule().toString()));
+                        }
+                    }
+                }
+            }
+
+            search.pom = pom;
+            search.version = dependency.getVersion();
+            return search;
+        } finally {
+            if (resolution != null) {
+                currentResolution.set(resolution);
+            } else {
+                currentResolution.remove();
+            }
+        }
+    }
+
     private DebianDependency getPackage(POMInfo pom, String sourcePomLoc) {
         DebianDependency pkg = null;
         if (pom.getProperties() != null) {
@@ -837,7 +1419,7 @@ public class DependenciesSolver {
         }
         if (pkg == null) {
             Dependency dependency = pom.getThisPom();
-            issues.add(sourcePomLoc + ": Dependency is missing the Debian properties in its POM: " + dependency.getGroupId() + ":"
+            addIssue(sourcePomLoc + ": Dependency is missing the Debian properties in its POM: " + dependency.getGroupId() + ":"
                     + dependency.getArtifactId() + ":" + dependency.getVersion());
             File pomFile = new File(mavenRepo, dependency.getGroupId().replace(".", "/") + "/" + dependency.getArtifactId() + "/" + dependency.getVersion() + "/" + dependency.getArtifactId() + "-" + dependency.getVersion() + ".pom");
             pkg = scanner.searchPkg(pomFile);
@@ -845,13 +1427,94 @@ public class DependenciesSolver {
         return pkg;
     }
 
-    private boolean containsDependencyIgnoreVersion(Collection<Dependency> dependencies, Dependency dependency) {
-        for (Dependency ignoredDependency : dependencies) {
-            if (ignoredDependency.equalsIgnoreVersion(dependency)) {
-                return true;
-            }
+    // The changes below are recorded instead of being applied when resolving in a background thread
+
+    private void println(String message) {
+        Resolution resolution = currentResolution.get();
+        if (resolution != null) {
+            resolution.messages.add(message);
+        } else {
+            System.out.println(message);
+        }
+    }
+
+    private void addIssue(String issue) {
+        Resolution resolution = currentResolution.get();
+        if (resolution != null) {
+            resolution.issues.add(issue);
+        } else {
+            issues.add(issue);
+        }
+    }
+
+    private void ignore(Dependency dependency) {
+        Resolution resolution = currentResolution.get();
+        if (resolution != null) {
+            resolution.ignored.add(dependency);
+        } else {
+            ignoredDependencies.add(dependency);
+        }
+        addRule(IGNORE, new DependencyRule(dependency.getGroupId(), dependency.getArtifactId(), "*", "*"));
+    }
+
+    private void addRule(RulesType type, DependencyRule rule) {
+        addRules(type, Collections.singleton(rule));
+    }
+
+    private void addRules(RulesType type, Collection<DependencyRule> rules) {
+        Resolution resolution = currentResolution.get();
+        if (resolution != null) {
+            resolution.addRules(type, rules);
+        } else {
+            addToRulesFiles(type, rules);
+        }
+    }
+
+    /**
+     * Adds the rules not already present to the rules files.
+     */
+    private void addToRulesFiles(RulesType type, Collection<DependencyRule> rules) {
+        List<DependencyRule> added = getRuleIndex(type).addAll(rules);
+        if (!added.isEmpty()) {
+            pomTransformer.getRulesFiles().get(type).addAll(added);
+        }
+    }
+
+    /**
+     * Returns the index of the rules of the specified type. The index is rebuilt
+     * if the rules were modified without going through the solver, even if
+     * their number didn't change.
+     */
+    private RuleIndex getRuleIndex(RulesType type) {
+        RuleIndex index = ruleIndexes.get(type);
+        if (index == null) {
+            index = new RuleIndex();
+            ruleIndexes.put(type, index);
+        }
+        Set<DependencyRule> rules = pomTransformer.getRulesFiles().get(type).getRules();
+        if (!index.indexes(rules)) {
+            index.clear();
+            index.addAll(rules);
+        }
+        return index;
+    }
+
+    private void addDebianDependency(DebianDependencies.Type type, DebianDependency pkg) {
+        Resolution resolution = currentResolution.get();
+        if (resolution != null) {
+            resolution.debianDeps.add(type, pkg);
+        } else {
+            debianDeps.add(type, pkg);
+        }
+    }
+
+    private void addVersionedPackage(DebianDependency pkg, Dependency dependency) {
+        Resolution resolution = currentResolution.get();
+        if (resolution != null) {
+            resolution.versionedPackages.put(pkg, dependency);
+        } else {
+            versionedPackagesAndDependencies.put(pkg, dependency);
         }
-        return false;
     }
 
     public static void main(String[] args) {
@@ -861,6 +1524,7 @@ public class DependenciesSolver {
             System.out.println("");
             System.out.println("Options:");
             System.out.println("  -v, --verbose: be extra verbose");
+            System.out.println("  -q, --quiet: don't display the external commands executed");
             System.out.println("  -p<package>, --package=<package>: name of the Debian package containing");
             System.out.println("    this library");
 //            System.out.println("  -r<rules>, --rules=<rules>: path to the file containing the");
@@ -877,6 +1541,8 @@ public class DependenciesSolver {
             System.out.println("    POM file with the versions found in the repository");
             System.out.println("  --base-directory: path to root directory of package");
             System.out.println("  --non-explore: doesn't explore directories for pom.xml");
+            System.out.println("  --trace=<file>: record the time spent in each phase and the cache");
+            System.out.println("    statistics in a trace file (Chrome trace format)");
             return;
         }
 
@@ -898,6 +1564,8 @@ public class DependenciesSolver {
             String arg = args[i].trim();
             if ("--verbose".equals(arg) || "-v".equals(arg)) {
                 verbose = true;
+            } else if ("--quiet".equals(arg) || "-q".equals(arg)) {
+                IOUtil.setQuiet(true);
             } else if ("--debug".equals(arg)) {
                 log.setLevel(Level.FINEST);
             } else if (arg.startsWith("-p")) {
@@ -924,12 +1592,15 @@ public class DependenciesSolver {
                 baseDirectory = new File(arg.substring("--base-directory=".length()));
             } else if (arg.equals("--non-explore")) {
                 exploreProjects = false;
+            } else if (arg.startsWith("--trace=")) {
+                Trace.start(new File(arg.substring("--trace=".length())));
             }
             i = inc(i, args);
         }
 
         File outputDirectory = new File(baseDirectory, "debian");
-        DependenciesSolver solver = new DependenciesSolver(outputDirectory, new PackageScanner(offline), interactive);
+        PackageScanner scanner = new PackageScanner(offline, PackageCacheFile.getDefault());
+        DependenciesSolver solver = new DependenciesSolver(outputDirectory, scanner, interactive);
         solver.generateJavadoc = generateJavadoc;
         solver.runTests = runTests;
         solver.exploreProjects = exploreProjects;
@@ -940,10 +1611,10 @@ public class DependenciesSolver {
         solver.setListOfPoms(poms);
 
         if (mavenRepo != null) {
-            Repository repository = new Repository(mavenRepo);
-            solver.pomTransformer.setRepository(repository);
-            solver.pomTransformer.usePluginVersionsFromRepository();
+            // the repository is scanned once by solveDependencies()
+            solver.mavenRepo = mavenRepo;
         }
+        solver.repositorySnapshot = RepositorySnapshot.getLocation(outputDirectory);
 
         if (verbose) {
             String msg = "Solving dependencies for package " + debianPackage;
@@ -957,15 +1628,46 @@ public class DependenciesSolver {
             solver.verbose = true;
         }
 
-        solver.solveDependencies();
+        try {
+            // the results of the previous run are reused if nothing has changed since then
+            boolean useFingerprint = !interactive;
+            if (useFingerprint) {
+                try {
+                    if (solver.isUpToDate(offline)) {
+                        System.out.println("The dependencies haven't changed since the last run, keeping debian/" + debianPackage + ".substvars");
+                        Trace.save();
+                        return;
+                    }
+                } catch (IOException e) {
+                    log.log(Level.WARNING, "Unable to compute the fingerprint of the project: " + e.getMessage());
+                    useFingerprint = false;
+                }
+            }
+
+            solver.solveDependencies();
 
-        solver.pomTransformer.getListOfPOMs().save();
-        solver.pomTransformer.getRulesFiles().save(outputDirectory);
-        solver.saveSubstvars();
+            solver.pomTransformer.getListOfPOMs().save();
+            solver.pomTransformer.getRulesFiles().save(outputDirectory);
+            solver.saveSubstvars();
+            solver.saveCache();
+            Trace.save();
 
-        if (!solver.issues.isEmpty()) {
-            System.err.println("Some problems were found in this project, exiting...");
-            System.exit(1);
+            if (!solver.issues.isEmpty()) {
+                solver.getFingerprintFile().delete();
+                System.err.println("Some problems were found in this project, exiting...");
+                System.exit(1);
+            }
+
+            if (useFingerprint) {
+                // computed after saving the list of POMs and the rules, they are read by the next run
+                try {
+                    solver.saveFingerprint(offline);
+                } catch (IOException e) {
+                    log.log(Level.WARNING, "Unable to save the fingerprint of the project: " + e.getMessage());
+                }
+            }
+        } finally {
+            IOUtil.shutdown();
         }
     }
 
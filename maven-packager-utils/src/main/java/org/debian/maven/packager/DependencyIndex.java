@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.debian.maven.repo.Dependency;
+
+/**
+ * Set of dependencies checked ignoring their version. The dependencies are
+ * indexed by groupId and artifactId, only the few dependencies sharing them
+ * (with a different type for example) are compared.
+ */
+class DependencyIndex {
+
+    private final Map<String, List<Dependency>> dependencies = new HashMap<String, List<Dependency>>();
+
+    public void add(Dependency dependency) {
+        String key = getKey(dependency);
+        List<Dependency> candidates = dependencies.get(key);
+        if (candidates == null) {
+            candidates = new ArrayList<Dependency>(1);
+            dependencies.put(key, candidates);
+        } else if (contains(candidates, dependency)) {
+            return;
+        }
+        candidates.add(dependency);
+    }
+
+    public void addAll(Collection<Dependency> dependencies) {
+        for (Dependency dependency : dependencies) {
+            add(dependency);
+        }
+    }
+
+    /**
+     * Tells if a dependency equal to the specified one, ignoring the version, has been added.
+     */
+    public boolean containsIgnoreVersion(Dependency dependency) {
+        List<Dependency> candidates = dependencies.get(getKey(dependency));
+        return candidates != null && contains(candidates, dependency);
+    }
+
+    private static boolean contains(List<Dependency> candidates, Dependency dependency) {
+        for (Dependency candidate : candidates) {
+            if (candidate.equalsIgnoreVersion(dependency)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getKey(Dependency dependency) {
+        return dependency.getGroupId() + ":" + dependency.getArtifactId();
+    }
+}
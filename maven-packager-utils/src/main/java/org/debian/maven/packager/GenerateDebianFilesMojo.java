@@ -39,6 +39,7 @@ import org.apache.velocity.app.Velocity;
 import org.debian.maven.packager.interaction.MultilineQuestion;
 import org.debian.maven.packager.interaction.SimpleQuestion;
 import org.debian.maven.packager.util.LicensesScanner;
+import org.debian.maven.packager.util.PackageCacheFile;
 import org.debian.maven.packager.util.PackageScanner;
 import org.debian.maven.repo.ListOfPOMs;
 import org.debian.maven.repo.POMOptions;
@@ -156,7 +157,7 @@ public class GenerateDebianFilesMojo extends AbstractMojo {
      */
     protected boolean generateJavadoc;
 
-    private PackageScanner scanner = new PackageScanner(false);
+    private PackageScanner scanner = new PackageScanner(false, PackageCacheFile.getDefault());
     private LicensesScanner licensesScanner = new LicensesScanner();
 
     public void execute() throws MojoExecutionException {
@@ -319,13 +320,13 @@ public class GenerateDebianFilesMojo extends AbstractMojo {
 
                 if ("ant".equals(packageType)) {
                     Set<String> compileJars = new TreeSet<String>();
-                    for (String library : compileDepends) {
-                        compileJars.addAll(scanner.listSharedJars(library));
+                    for (List<String> jars : scanner.listSharedJars(compileDepends).values()) {
+                        compileJars.addAll(jars);
                     }
                     context.put("compileJars", compileJars);
                     Set<String> testJars = new TreeSet<String>();
-                    for (String library : testDepends) {
-                        testJars.addAll(scanner.listSharedJars(library));
+                    for (List<String> jars : scanner.listSharedJars(testDepends).values()) {
+                        testJars.addAll(jars);
                     }
                     context.put("testJars", testJars);
                 }
@@ -465,6 +466,7 @@ public class GenerateDebianFilesMojo extends AbstractMojo {
             generateFile(context, controlTemplate, outputDirectory, "control");
             generateFile(context, "format.vm", new File(outputDirectory, "source"), "format");
 
+            scanner.saveCache();
         } catch (Exception ex) {
             ex.printStackTrace();
         }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Digest of the inputs of the dependency solver: the content of the project
+ * files and the layout of the Maven repository. If the digest is the same
+ * as the one saved after the previous run the results can be reused.
+ */
+class InputFingerprint {
+
+    private final MessageDigest digest;
+
+    public InputFingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void add(String value) {
+        try {
+            digest.update(String.valueOf(value).getBytes("UTF-8"));
+            digest.update((byte) 0);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds the name and the content of a file, or only its name if it doesn't exist.
+     */
+    public void addFile(File file) throws IOException {
+        add(file.getPath());
+        if (!file.isFile()) {
+            add("<missing>");
+            return;
+        }
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, length);
+            }
+        } finally {
+            in.close();
+        }
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Adds the modification time of a file without reading it.
+     */
+    public void addTimestamp(File file) {
+        add(file.getPath());
+        add(String.valueOf(file.lastModified()));
+    }
+
+    /**
+     * Adds the modification time of the directory and of all its subdirectories.
+     * The files added to or removed from a directory change its modification time.
+     */
+    public void addDirectoryTree(File dir) {
+        addTimestamp(dir);
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isDirectory()) {
+                addDirectoryTree(file);
+            }
+        }
+    }
+
+    public String getValue() {
+        MessageDigest copy;
+        try {
+            // the digest may still be updated
+            copy = (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        StringBuilder value = new StringBuilder();
+        for (byte b : copy.digest()) {
+            value.append(String.format("%02x", b & 0xff));
+        }
+        return value.toString();
+    }
+
+    /**
+     * Tells if the fingerprint is the one saved in the specified file.
+     */
+    public boolean matches(File file) {
+        if (!file.isFile()) {
+            return false;
+        }
+        try {
+            BufferedReader reader = new BufferedReader(new FileReader(file));
+            try {
+                return getValue().equals(reader.readLine());
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public void save(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(getValue());
+            writer.write("\n");
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects the POMs installed in the Maven repository since it was scanned.
+ * The modification times and the subdirectories of the directories are
+ * recorded, only the directories modified are listed again to find the
+ * new POMs. The other directories are only checked for modification.
+ */
+class RepositoryMonitor {
+
+    private final File baseDir;
+    /** The modification time of the directories of the repository */
+    private Map<File, Long> directories = new HashMap<File, Long>();
+    /** The subdirectories of the directories of the repository */
+    private Map<File, List<File>> subdirectories = new HashMap<File, List<File>>();
+    /** The modification time of the POMs of the repository */
+    private Map<File, Long> poms = new HashMap<File, Long>();
+
+    public RepositoryMonitor(File baseDir) {
+        this.baseDir = baseDir;
+        snapshot(baseDir, directories, subdirectories, poms);
+    }
+
+    /**
+     * Returns the POMs added since the previous call. Returns null if POMs
+     * were removed or modified, the repository must then be scanned again.
+     */
+    public List<File> getAddedPoms() {
+        Map<File, Long> newDirectories = new HashMap<File, Long>();
+        Map<File, List<File>> newSubdirectories = new HashMap<File, List<File>>();
+        Map<File, Long> newPoms = new HashMap<File, Long>(poms);
+        List<File> added = new ArrayList<File>();
+        boolean removed = !update(baseDir, newDirectories, newSubdirectories, newPoms, added);
+        for (File dir : directories.keySet()) {
+            removed |= !newDirectories.containsKey(dir);
+        }
+        directories = newDirectories;
+        subdirectories = newSubdirectories;
+        poms = newPoms;
+        return removed ? null : added;
+    }
+
+    private static void snapshot(File dir, Map<File, Long> directories, Map<File, List<File>> subdirectories, Map<File, Long> poms) {
+        directories.put(dir, dir.lastModified());
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> subdirs = new ArrayList<File>();
+        for (File file : files) {
+            if (file.isDirectory()) {
+                subdirs.add(file);
+                snapshot(file, directories, subdirectories, poms);
+            } else if (file.getName().endsWith(".pom")) {
+                poms.put(file, file.lastModified());
+            }
+        }
+        subdirectories.put(dir, subdirs);
+    }
+
+    /**
+     * Records the directories and lists again those modified. The entries of a directory
+     * can't change without changing its modification time, the subdirectories of the
+     * directories not modified are taken from the previous snapshot.
+     *
+     * @return false if a POM was removed or modified
+     */
+    private boolean update(File dir, Map<File, Long> newDirectories, Map<File, List<File>> newSubdirectories,
+                           Map<File, Long> newPoms, List<File> added) {
+        long lastModified = dir.lastModified();
+        newDirectories.put(dir, lastModified);
+        Long previous = directories.get(dir);
+        boolean modified = previous == null || previous != lastModified;
+
+        boolean unchanged = true;
+        List<File> subdirs = subdirectories.get(dir);
+        if (!modified && subdirs != null) {
+            newSubdirectories.put(dir, subdirs);
+            for (File subdir : subdirs) {
+                unchanged &= update(subdir, newDirectories, newSubdirectories, newPoms, added);
+            }
+            return unchanged;
+        }
+
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return true;
+        }
+        subdirs = new ArrayList<File>();
+        newSubdirectories.put(dir, subdirs);
+        List<File> found = new ArrayList<File>();
+        for (File file : files) {
+            if (file.isDirectory()) {
+                subdirs.add(file);
+                unchanged &= update(file, newDirectories, newSubdirectories, newPoms, added);
+            } else if (file.getName().endsWith(".pom")) {
+                found.add(file);
+                Long pomModified = poms.get(file);
+                if (pomModified == null) {
+                    added.add(file);
+                    newPoms.put(file, file.lastModified());
+                } else if (pomModified != file.lastModified()) {
+                    unchanged = false;
+                }
+            }
+        }
+        if (modified) {
+            // the POMs which disappeared from this directory
+            for (File pom : poms.keySet()) {
+                if (dir.equals(pom.getParentFile()) && !found.contains(pom)) {
+                    newPoms.remove(pom);
+                    unchanged = false;
+                }
+            }
+        }
+        return unchanged;
+    }
+}
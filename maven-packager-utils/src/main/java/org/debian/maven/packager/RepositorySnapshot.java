@@ -0,0 +1,438 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.debian.maven.packager.util.DpkgStatus;
+import org.debian.maven.packager.util.IOUtil;
+import org.debian.maven.repo.Dependency;
+import org.debian.maven.repo.POMInfo;
+import org.debian.maven.repo.POMInfo.DependencyType;
+import org.debian.maven.repo.Repository;
+
+/**
+ * Snapshot of the POMs read from the Maven repository, saved after a scan and
+ * memory mapped by the next runs instead of parsing the POMs again.
+ * <p>
+ * The strings are stored once in a table shared by all the POMs, and the POMs
+ * refer to them by index. The snapshot is identified by a key computed from
+ * the location of the repository, the modification time of its directories
+ * and the modification time of the dpkg status file. Installing or removing
+ * a package invalidates the snapshot.
+ * <p>
+ * The snapshot is kept in debian/.mh with the other files of the package
+ * build, it is thus reused by the successive runs of mh_resolve_dependencies
+ * during a build, and by mh_make.
+ */
+class RepositorySnapshot {
+
+    private static final int MAGIC = 0x4d485253;
+    private static final int FORMAT_VERSION = 1;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** The POMs added, in the order they were read */
+    private final Map<File, POMInfo> poms = new LinkedHashMap<File, POMInfo>();
+
+    /** The indexes of the strings in the string table */
+    private final Map<String, Integer> stringIds = new LinkedHashMap<String, Integer>();
+
+    /** The POMs encoded, with references to the string table */
+    private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+
+    /**
+     * Returns the key identifying the state of the repository.
+     */
+    static String getKey(File repositoryDir) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            update(digest, String.valueOf(FORMAT_VERSION));
+            // the content of the POMs read may change with the version of maven-repo-helper
+            update(digest, String.valueOf(Repository.class.getPackage().getImplementationVersion()));
+            update(digest, repositoryDir.getAbsolutePath());
+            updateDirectoryTree(digest, repositoryDir);
+            update(digest, String.valueOf(DpkgStatus.DPKG_STATUS_FILE.lastModified()));
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b & 0xff));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds the modification time of the directory and of all its subdirectories.
+     * The POMs added to or removed from a directory change its modification time.
+     */
+    private static void updateDirectoryTree(MessageDigest digest, File dir) {
+        update(digest, dir.getPath() + " " + dir.lastModified());
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isDirectory()) {
+                updateDirectoryTree(digest, file);
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(UTF8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Returns the location of the snapshot of the repository for the package
+     * whose debian directory is specified.
+     */
+    static File getLocation(File outputDirectory) {
+        return new File(outputDirectory, ".mh/repository.snapshot");
+    }
+
+    /**
+     * Adds a POM read from the repository. The POM is encoded immediately, before the
+     * repository modifies it.
+     */
+    public void add(File file, POMInfo pom) {
+        poms.put(file, pom);
+        writeString(file.getPath());
+        writeDependency(pom.getThisPom());
+        writeDependency(pom.getParent());
+
+        List<String> modules = pom.getModules();
+        writeVarInt(modules == null ? 0 : modules.size() + 1);
+        if (modules != null) {
+            for (String module : modules) {
+                writeString(module);
+            }
+        }
+
+        Map<String, String> properties = pom.getProperties();
+        writeVarInt(properties == null ? 0 : properties.size() + 1);
+        if (properties != null) {
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                writeString(property.getKey());
+                writeString(property.getValue());
+            }
+        }
+
+        Map<DependencyType, List<Dependency>> dependencies = pom.getDependencies();
+        writeVarInt(dependencies == null ? 0 : dependencies.size() + 1);
+        if (dependencies != null) {
+            for (Map.Entry<DependencyType, List<Dependency>> entry : dependencies.entrySet()) {
+                writeString(entry.getKey().name());
+                List<Dependency> list = entry.getValue();
+                writeVarInt(list == null ? 0 : list.size() + 1);
+                if (list != null) {
+                    for (Dependency dependency : list) {
+                        writeDependency(dependency);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the POMs of the snapshot, the parent POMs before their children
+     * so that the repository can resolve them when they are registered.
+     */
+    public List<Map.Entry<File, POMInfo>> getPoms() {
+        Map<String, POMInfo> pomsById = new HashMap<String, POMInfo>();
+        for (POMInfo pom : poms.values()) {
+            if (pom.getThisPom() != null) {
+                pomsById.put(getId(pom.getThisPom()), pom);
+            }
+        }
+        final Map<POMInfo, Integer> depths = new IdentityHashMap<POMInfo, Integer>();
+        for (POMInfo pom : poms.values()) {
+            int depth = 0;
+            POMInfo parent = pom;
+            // the depth is limited in case of a cycle
+            while (parent.getParent() != null && depth < poms.size()
+                    && (parent = pomsById.get(getId(parent.getParent()))) != null) {
+                depth++;
+            }
+            depths.put(pom, depth);
+        }
+
+        List<Map.Entry<File, POMInfo>> sorted = new ArrayList<Map.Entry<File, POMInfo>>(poms.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<File, POMInfo>>() {
+            public int compare(Map.Entry<File, POMInfo> e1, Map.Entry<File, POMInfo> e2) {
+                return depths.get(e1.getValue()) - depths.get(e2.getValue());
+            }
+        });
+        return sorted;
+    }
+
+    private static String getId(Dependency dependency) {
+        return dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion();
+    }
+
+    public int size() {
+        return poms.size();
+    }
+
+    /**
+     * Saves the snapshot. Failing to write the snapshot is not an error, the next run will just be slower.
+     */
+    public void save(File file, String key) {
+        try {
+            IOUtil.mkDirIfNotExists(file.getParentFile());
+            // write to a temporary file first, another tool may be reading the snapshot
+            File tmpFile = new File(file.getPath() + ".tmp");
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeUTF8(out, key);
+                out.writeInt(stringIds.size());
+                for (String s : stringIds.keySet()) {
+                    writeUTF8(out, s);
+                }
+                out.writeInt(poms.size());
+                out.writeInt(entries.size());
+                entries.writeTo(out);
+            } finally {
+                out.close();
+            }
+            if (!tmpFile.renameTo(file)) {
+                tmpFile.delete();
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot write the snapshot of the repository " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the snapshot saved with the key specified.
+     *
+     * @return the snapshot, or null if it doesn't exist, is out of date or can't be read
+     */
+    public static RepositorySnapshot load(File file, String key) {
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            ByteBuffer buffer;
+            try {
+                buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            } finally {
+                // the mapping remains valid after the file is closed
+                raf.close();
+            }
+
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION
+                    || !key.equals(readUTF8(buffer))) {
+                return null;
+            }
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readUTF8(buffer);
+            }
+            int count = buffer.getInt();
+            int length = buffer.getInt();
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            buffer.limit(buffer.position() + length);
+
+            RepositorySnapshot snapshot = new RepositorySnapshot();
+            Reader reader = new Reader(buffer, strings);
+            for (int i = 0; i < count; i++) {
+                File pomFile = new File(reader.readString());
+                snapshot.poms.put(pomFile, reader.readPom());
+            }
+            return snapshot;
+        } catch (IOException e) {
+            System.err.println("Cannot read the snapshot of the repository " + file + ": " + e.getMessage());
+            return null;
+        } catch (BufferUnderflowException e) {
+            System.err.println("The snapshot of the repository " + file + " is truncated");
+            return null;
+        } catch (RuntimeException e) {
+            System.err.println("The snapshot of the repository " + file + " is invalid: " + e);
+            return null;
+        }
+    }
+
+    private void writeDependency(Dependency dependency) {
+        if (dependency == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(dependency.isOptional() ? 2 : 1);
+        writeString(dependency.getGroupId());
+        writeString(dependency.getArtifactId());
+        writeString(dependency.getType());
+        writeString(dependency.getVersion());
+        writeString(dependency.getScope());
+        writeString(dependency.getClassifier());
+        writeString(dependency.getRelativePath());
+    }
+
+    /**
+     * Writes the index of the string in the table plus one, 0 being null.
+     */
+    private void writeString(String s) {
+        if (s == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = stringIds.size();
+            stringIds.put(s, id);
+        }
+        writeVarInt(id + 1);
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7f) != 0) {
+            entries.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        entries.write(value);
+    }
+
+    private static void writeUTF8(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readUTF8(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Decodes the POMs, the strings are shared with the string table.
+     */
+    private static class Reader {
+        private final ByteBuffer buffer;
+        private final String[] strings;
+
+        private Reader(ByteBuffer buffer, String[] strings) {
+            this.buffer = buffer;
+            this.strings = strings;
+        }
+
+        private POMInfo readPom() {
+            POMInfo pom = new POMInfo();
+            pom.setThisPom(readDependency());
+            pom.setParent(readDependency());
+
+            int modulesCount = readVarInt();
+            if (modulesCount > 0) {
+                List<String> modules = new ArrayList<String>(modulesCount - 1);
+                for (int i = 0; i < modulesCount - 1; i++) {
+                    modules.add(readString());
+                }
+                pom.setModules(modules);
+            }
+
+            int propertiesCount = readVarInt();
+            if (propertiesCount > 0) {
+                Map<String, String> properties = new LinkedHashMap<String, String>();
+                for (int i = 0; i < propertiesCount - 1; i++) {
+                    properties.put(readString(), readString());
+                }
+                pom.setProperties(properties);
+            }
+
+            int typesCount = readVarInt();
+            if (typesCount > 0) {
+                Map<DependencyType, List<Dependency>> dependencies = new EnumMap<DependencyType, List<Dependency>>(DependencyType.class);
+                for (int i = 0; i < typesCount - 1; i++) {
+                    DependencyType type = DependencyType.valueOf(readString());
+                    int count = readVarInt();
+                    List<Dependency> list = null;
+                    if (count > 0) {
+                        list = new ArrayList<Dependency>(count - 1);
+                        for (int j = 0; j < count - 1; j++) {
+                            list.add(readDependency());
+                        }
+                    }
+                    dependencies.put(type, list);
+                }
+                pom.setDependencies(dependencies);
+            }
+            return pom;
+        }
+
+        private Dependency readDependency() {
+            int flags = readVarInt();
+            if (flags == 0) {
+                return null;
+            }
+            String groupId = readString();
+            String artifactId = readString();
+            String type = readString();
+            String version = readString();
+            String scope = readString();
+            String classifier = readString();
+            String relativePath = readString();
+            return new Dependency(groupId, artifactId, type, version, scope, flags == 2, classifier, relativePath);
+        }
+
+        private String readString() {
+            int id = readVarInt();
+            return id == 0 ? null : strings[id - 1];
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
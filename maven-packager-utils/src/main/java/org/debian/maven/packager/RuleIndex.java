@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.debian.maven.repo.Dependency;
+import org.debian.maven.repo.DependencyRule;
+
+/**
+ * Index of dependency rules by artifactId. The rules matching a literal
+ * artifactId (org.foo foo jar 1.x) are only evaluated against the dependencies
+ * with the same artifactId, the other rules (org.foo * * *) are evaluated
+ * against all the dependencies. The groupId isn't part of the key since its
+ * dots match any character (org.foo also matches orgXfoo).
+ * The rules already indexed are ignored.
+ */
+class RuleIndex {
+
+    /** The artifactIds without wildcard or regular expression, a dot matches any character */
+    private static final Pattern LITERAL = Pattern.compile("[\\w-]+");
+
+    private final Set<DependencyRule> rules = new TreeSet<DependencyRule>();
+    private final Map<String, List<DependencyRule>> literalRules = new HashMap<String, List<DependencyRule>>();
+    private final List<DependencyRule> otherRules = new ArrayList<DependencyRule>();
+
+    /**
+     * Adds a rule to the index.
+     *
+     * @return false if the rule was already indexed
+     */
+    public boolean add(DependencyRule rule) {
+        if (!rules.add(rule)) {
+            return false;
+        }
+        String artifact = rule.getArtifactRule().toString();
+        if (LITERAL.matcher(artifact).matches()) {
+            List<DependencyRule> bucket = literalRules.get(artifact);
+            if (bucket == null) {
+                bucket = new ArrayList<DependencyRule>();
+                literalRules.put(artifact, bucket);
+            }
+            bucket.add(rule);
+        } else {
+            otherRules.add(rule);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the rules to the index and returns those which weren't already indexed.
+     */
+    public List<DependencyRule> addAll(Collection<DependencyRule> newRules) {
+        List<DependencyRule> added = new ArrayList<DependencyRule>();
+        for (DependencyRule rule : newRules) {
+            if (add(rule)) {
+                added.add(rule);
+            }
+        }
+        return added;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * Tells if the index contains exactly the rules specified.
+     */
+    public boolean indexes(Collection<DependencyRule> ruleSet) {
+        return rules.size() == ruleSet.size() && rules.containsAll(ruleSet);
+    }
+
+    public void clear() {
+        rules.clear();
+        literalRules.clear();
+        otherRules.clear();
+    }
+
+    /**
+     * Returns the rules matching the dependency, in the order of DependencyRuleSet.findMatchingRules().
+     */
+    public Set<DependencyRule> findMatchingRules(Dependency dependency) {
+        Set<DependencyRule> matchingRules = new TreeSet<DependencyRule>();
+        List<DependencyRule> bucket = literalRules.get(dependency.getArtifactId());
+        if (bucket != null) {
+            for (DependencyRule rule : bucket) {
+                if (rule.matches(dependency)) {
+                    matchingRules.add(rule);
+                }
+            }
+        }
+        for (DependencyRule rule : otherRules) {
+            if (rule.matches(dependency)) {
+                matchingRules.add(rule);
+            }
+        }
+        return matchingRules;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.debian.maven.repo.Dependency;
+
+/**
+ * Index of the versions available in the Maven repository for each groupId
+ * and artifactId. The versions are read from the layout of the repository
+ * (<tt>groupId/artifactId/version/</tt>) when first requested, the versions
+ * of the POMs registered from the project are added to them.
+ */
+class VersionIndex {
+
+    /** Orders the versions from the most recent, the symbolic versions (1.x, debian) come last */
+    static final Comparator<String> BEST_VERSION_FIRST = new Comparator<String>() {
+        public int compare(String v1, String v2) {
+            boolean symbolic1 = isSymbolic(v1);
+            boolean symbolic2 = isSymbolic(v2);
+            if (symbolic1 != symbolic2) {
+                return symbolic1 ? 1 : -1;
+            }
+            return compareVersions(v2, v1);
+        }
+    };
+
+    private final File repositoryDir;
+    private final Map<String, List<String>> versions = new ConcurrentHashMap<String, List<String>>();
+    /** The POMs registered, their versions are kept when the repository changes */
+    private final List<Dependency> registeredPoms = new ArrayList<Dependency>();
+
+    public VersionIndex(File repositoryDir) {
+        this.repositoryDir = repositoryDir;
+    }
+
+    /**
+     * Returns the versions available for the specified groupId and artifactId, the best one first.
+     */
+    public List<String> getVersions(String groupId, String artifactId) {
+        String key = groupId + ":" + artifactId;
+        List<String> available = versions.get(key);
+        if (available == null) {
+            available = new ArrayList<String>();
+            File[] dirs = new File(repositoryDir, groupId.replace('.', '/') + "/" + artifactId).listFiles();
+            if (dirs != null) {
+                for (File dir : dirs) {
+                    if (dir.isDirectory()) {
+                        available.add(dir.getName());
+                    }
+                }
+            }
+            Collections.sort(available, BEST_VERSION_FIRST);
+            versions.put(key, available);
+        }
+        return available;
+    }
+
+    /**
+     * Adds the version of a POM registered in the repository without being installed.
+     */
+    public synchronized void register(Dependency pom) {
+        if (pom.getVersion() == null) {
+            return;
+        }
+        registeredPoms.add(new Dependency(pom));
+        addVersion(pom);
+    }
+
+    private void addVersion(Dependency pom) {
+        List<String> available = new ArrayList<String>(getVersions(pom.getGroupId(), pom.getArtifactId()));
+        if (!available.contains(pom.getVersion())) {
+            available.add(pom.getVersion());
+            Collections.sort(available, BEST_VERSION_FIRST);
+            versions.put(pom.getGroupId() + ":" + pom.getArtifactId(), available);
+        }
+    }
+
+    /**
+     * Forgets the versions read, the repository has changed. The versions of the POMs registered are kept.
+     */
+    public synchronized void clear() {
+        versions.clear();
+        for (Dependency pom : registeredPoms) {
+            addVersion(pom);
+        }
+    }
+
+    private static boolean isSymbolic(String version) {
+        return "debian".equals(version) || version.equals("x") || version.endsWith(".x") || version.contains(".x.");
+    }
+
+    /**
+     * Compares two versions by their numeric and alphabetic parts, a version
+     * followed by a qualifier (1.0-beta) is older than the version alone (1.0).
+     */
+    static int compareVersions(String v1, String v2) {
+        String[] parts1 = v1.split("[.-]");
+        String[] parts2 = v2.split("[.-]");
+        for (int i = 0; i < Math.max(parts1.length, parts2.length); i++) {
+            if (i >= parts1.length) {
+                return isNumber(parts2[i]) ? -1 : 1;
+            }
+            if (i >= parts2.length) {
+                return isNumber(parts1[i]) ? 1 : -1;
+            }
+            int result;
+            if (isNumber(parts1[i]) && isNumber(parts2[i])) {
+                result = compareNumbers(parts1[i], parts2[i]);
+            } else if (isNumber(parts1[i]) != isNumber(parts2[i])) {
+                result = isNumber(parts1[i]) ? 1 : -1;
+            } else {
+                result = parts1[i].compareTo(parts2[i]);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return v1.compareTo(v2);
+    }
+
+    private static int compareNumbers(String n1, String n2) {
+        // compare the numbers by length first to avoid overflows
+        String s1 = n1.replaceFirst("^0+(?=.)", "");
+        String s2 = n2.replaceFirst("^0+(?=.)", "");
+        return s1.length() != s2.length() ? s1.length() - s2.length() : s1.compareTo(s2);
+    }
+
+    private static boolean isNumber(String part) {
+        if (part.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < part.length(); i++) {
+            if (!Character.isDigit(part.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
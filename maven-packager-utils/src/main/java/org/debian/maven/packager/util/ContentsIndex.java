@@ -0,0 +1,501 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Index of the files available in the Debian archive, built from the
+ * Contents files downloaded by apt-file in <tt>/var/lib/apt/lists</tt>.
+ * It answers the same questions as <tt>apt-file search</tt>, without
+ * network access and without starting a process for each search.
+ * <p>
+ * Only the paths matching the patterns given are indexed. A pattern ending
+ * with a slash matches the files in this directory and its subdirectories,
+ * and a <tt>*</tt> matches a single component of the path. The Contents files
+ * list millions of files, most of them in <tt>/usr/share/doc</tt>, so the
+ * patterns should be as narrow as possible.
+ * <p>
+ * The index is saved in a file which is memory mapped. The paths are sorted
+ * and prefix compressed, every 16th path is stored in full and serves as an
+ * entry point for the binary search. The index is rebuilt when the Contents
+ * files change.
+ */
+public class ContentsIndex {
+
+    public static final File APT_LISTS_DIR = new File("/var/lib/apt/lists");
+
+    private static final int MAGIC = 0x4d444843;
+    private static final int FORMAT_VERSION = 2;
+    private static final int RESTART_INTERVAL = 16;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final String[] patterns;
+    private final String[] packages;
+    private final int entryCount;
+    private final int[] restarts;
+    private final ByteBuffer data;
+
+    private ContentsIndex(String[] patterns, String[] packages, int entryCount, int[] restarts, ByteBuffer data) {
+        this.patterns = patterns;
+        this.packages = packages;
+        this.entryCount = entryCount;
+        this.restarts = restarts;
+        this.data = data;
+    }
+
+    /**
+     * Opens the index of the Contents files found in the specified directory,
+     * and builds it first if it doesn't exist or is out of date.
+     *
+     * @param listsDir  the directory containing the Contents files
+     * @param indexFile the location of the index
+     * @param patterns  the patterns of the only paths to include in the index
+     * @return the index, or null if there is no Contents file or if it can't be read
+     */
+    public static ContentsIndex open(File listsDir, File indexFile, String... patterns) {
+        return open(listsDir, indexFile, patterns, "lz4cat");
+    }
+
+    /**
+     * @param lz4cat the command decompressing the Contents files compressed with lz4
+     */
+    static ContentsIndex open(File listsDir, File indexFile, String[] patterns, String lz4cat) {
+        File[] contentsFiles = listContentsFiles(listsDir);
+        if (contentsFiles == null || contentsFiles.length == 0) {
+            return null;
+        }
+        Arrays.sort(contentsFiles);
+
+        StringBuilder stamp = new StringBuilder();
+        for (String pattern : patterns) {
+            stamp.append(pattern).append(' ');
+        }
+        for (File contents : contentsFiles) {
+            stamp.append(contents.getName()).append(':').append(contents.length()).append(':').append(contents.lastModified()).append(' ');
+        }
+
+        try {
+            ContentsIndex index = load(indexFile, stamp.toString(), patterns);
+            if (index == null) {
+                System.out.println("Indexing the Contents files in " + listsDir + "...");
+                build(contentsFiles, indexFile, stamp.toString(), patterns, lz4cat);
+                index = load(indexFile, stamp.toString(), patterns);
+            }
+            return index;
+        } catch (IOException e) {
+            System.err.println("Cannot use the index of the Contents files " + indexFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Tells if the specified directory contains Contents files.
+     */
+    public static boolean hasContentsFiles(File listsDir) {
+        File[] contentsFiles = listContentsFiles(listsDir);
+        return contentsFiles != null && contentsFiles.length > 0;
+    }
+
+    private static File[] listContentsFiles(File listsDir) {
+        return listsDir.listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.contains("Contents-") && !name.endsWith(".diff_Index");
+            }
+        });
+    }
+
+    private static void build(File[] contentsFiles, File indexFile, String stamp, String[] patterns, String lz4cat) throws IOException {
+        ContentsHandler handler = new ContentsHandler(patterns);
+        for (File contents : contentsFiles) {
+            if (contents.getName().endsWith(".lz4")) {
+                IOUtil.executeProcess(new String[]{lz4cat, contents.getAbsolutePath()}, handler);
+                if (handler.failed) {
+                    // an incomplete index would hide the packages not indexed
+                    throw new IOException("Cannot decompress " + contents + " with " + lz4cat);
+                }
+            } else {
+                InputStream in = new FileInputStream(contents);
+                if (contents.getName().endsWith(".gz")) {
+                    in = new GZIPInputStream(in);
+                }
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, UTF8));
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        handler.newLine(line);
+                    }
+                } finally {
+                    reader.close();
+                }
+            }
+        }
+
+        // the entries are written directly to the file, followed by the
+        // tables built meanwhile. The length of the entries is filled in last
+        IOUtil.mkDirIfNotExists(indexFile.getParentFile());
+        File tmpFile = new File(indexFile.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+        int dataLengthPosition;
+        int dataLength;
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, stamp);
+            dataLengthPosition = out.size();
+            out.writeInt(0);
+
+            List<String> packageNames = new ArrayList<String>();
+            Map<String, Integer> packageIds = new HashMap<String, Integer>();
+            List<Integer> restarts = new ArrayList<Integer>();
+            byte[] previous = new byte[0];
+            int count = 0;
+            int dataStart = out.size();
+            for (Map.Entry<String, String> entry : handler.packagesByPath.entrySet()) {
+                byte[] path = entry.getKey().getBytes(UTF8);
+                int shared = 0;
+                if (count % RESTART_INTERVAL == 0) {
+                    restarts.add(out.size() - dataStart);
+                } else {
+                    while (shared < previous.length && shared < path.length && previous[shared] == path[shared]) {
+                        shared++;
+                    }
+                }
+                Integer packageId = packageIds.get(entry.getValue());
+                if (packageId == null) {
+                    packageId = packageNames.size();
+                    packageIds.put(entry.getValue(), packageId);
+                    packageNames.add(entry.getValue());
+                }
+                writeVarInt(out, shared);
+                writeVarInt(out, path.length - shared);
+                out.write(path, shared, path.length - shared);
+                writeVarInt(out, packageId);
+                previous = path;
+                count++;
+            }
+            dataLength = out.size() - dataStart;
+
+            out.writeInt(count);
+            out.writeInt(restarts.size());
+            for (Integer restart : restarts) {
+                out.writeInt(restart);
+            }
+            out.writeInt(packageNames.size());
+            for (String pkg : packageNames) {
+                writeString(out, pkg);
+            }
+        } finally {
+            out.close();
+        }
+
+        RandomAccessFile file = new RandomAccessFile(tmpFile, "rw");
+        try {
+            file.seek(dataLengthPosition);
+            file.writeInt(dataLength);
+        } finally {
+            file.close();
+        }
+        if (!tmpFile.renameTo(indexFile)) {
+            tmpFile.delete();
+            throw new IOException("Cannot rename " + tmpFile + " to " + indexFile);
+        }
+    }
+
+    private static ContentsIndex load(File indexFile, String stamp, String[] patterns) throws IOException {
+        if (!indexFile.exists()) {
+            return null;
+        }
+        RandomAccessFile file = new RandomAccessFile(indexFile, "r");
+        ByteBuffer buffer;
+        try {
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+        } finally {
+            // the mapping remains valid after the file is closed
+            file.close();
+        }
+
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION
+                || !stamp.equals(readString(buffer))) {
+            return null;
+        }
+        int dataLength = buffer.getInt();
+        ByteBuffer data = buffer.slice();
+        data.limit(dataLength);
+        buffer.position(buffer.position() + dataLength);
+
+        int entryCount = buffer.getInt();
+        int[] restarts = new int[buffer.getInt()];
+        for (int i = 0; i < restarts.length; i++) {
+            restarts[i] = buffer.getInt();
+        }
+        String[] packages = new String[buffer.getInt()];
+        for (int i = 0; i < packages.length; i++) {
+            packages[i] = readString(buffer).intern();
+        }
+        return new ContentsIndex(patterns, packages, entryCount, restarts, data);
+    }
+
+    /**
+     * Tells if the index can answer for the specified file.
+     */
+    public boolean covers(File file) {
+        return matches(file.getAbsolutePath(), patterns);
+    }
+
+    /**
+     * Tells if the path matches one of the patterns. A pattern ending with
+     * a slash matches the directory and its content, a <tt>*</tt> matches
+     * a single component of the path.
+     */
+    static boolean matches(String path, String[] patterns) {
+        for (String pattern : patterns) {
+            if (matches(path, pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String path, String pattern) {
+        int p = 0;
+        int i = 0;
+        while (p < pattern.length()) {
+            char c = pattern.charAt(p++);
+            if (c == '*') {
+                while (i < path.length() && path.charAt(i) != '/') {
+                    i++;
+                }
+            } else if (i < path.length() && path.charAt(i) == c) {
+                i++;
+            } else {
+                // the directory itself matches the pattern of its content
+                return c == '/' && p == pattern.length() && i == path.length();
+            }
+        }
+        return i == path.length() || pattern.endsWith("/");
+    }
+
+    /**
+     * Returns the package containing the specified file, or null if not found.
+     */
+    public String getPackage(File file) {
+        String path = file.getAbsolutePath();
+        Cursor cursor = new Cursor(findBlock(path));
+        while (cursor.next()) {
+            int comparison = cursor.getPath().compareTo(path);
+            if (comparison == 0) {
+                return packages[cursor.packageId];
+            } else if (comparison > 0) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the files starting with the specified prefix and ending with
+     * the specified extension, mapped to the package containing them.
+     */
+    public Map<String, String> getPackagesAndFiles(String prefix, String extension) {
+        Map<String, String> result = new TreeMap<String, String>();
+        Cursor cursor = new Cursor(findBlock(prefix));
+        while (cursor.next()) {
+            String path = cursor.getPath();
+            if (path.startsWith(prefix)) {
+                if (path.endsWith(extension)) {
+                    result.put(path, packages[cursor.packageId]);
+                }
+            } else if (path.compareTo(prefix) > 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the files matching the pattern <tt>dir/*&#47;*</tt> and ending
+     * with the specified extension, mapped to the package containing them.
+     */
+    public Map<String, String> getPackagesAndFiles(File dir, String extension) {
+        String base = dir.getAbsolutePath() + "/";
+        Map<String, String> result = new TreeMap<String, String>();
+        for (Map.Entry<String, String> entry : getPackagesAndFiles(base, extension).entrySet()) {
+            if (DpkgFileIndex.isInSubdirectory(entry.getKey(), base)) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the last block whose first path is lower or equal to the path specified.
+     */
+    private int findBlock(String path) {
+        int low = 0;
+        int high = restarts.length - 1;
+        int block = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Cursor cursor = new Cursor(middle);
+            cursor.next();
+            if (cursor.getPath().compareTo(path) <= 0) {
+                block = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return block;
+    }
+
+    /**
+     * Decodes the entries of the index sequentially, starting from a block.
+     */
+    private class Cursor {
+        private int position;
+        private int index;
+        private byte[] path = new byte[256];
+        private int pathLength;
+        private int packageId;
+
+        private Cursor(int block) {
+            if (block < restarts.length) {
+                position = restarts[block];
+                index = block * RESTART_INTERVAL;
+            } else {
+                index = entryCount;
+            }
+        }
+
+        private boolean next() {
+            if (index >= entryCount) {
+                return false;
+            }
+            int shared = readVarInt();
+            int suffixLength = readVarInt();
+            if (shared + suffixLength > path.length) {
+                path = Arrays.copyOf(path, shared + suffixLength);
+            }
+            for (int i = 0; i < suffixLength; i++) {
+                path[shared + i] = data.get(position++);
+            }
+            pathLength = shared + suffixLength;
+            packageId = readVarInt();
+            index++;
+            return true;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(position++);
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private String getPath() {
+            return new String(path, 0, pathLength, UTF8);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Parses the lines of the Contents files, of the form:
+     * <pre>
+     *     usr/share/java/foo.jar    java/libfoo-java,java/libfoo2-java
+     * </pre>
+     */
+    private static class ContentsHandler implements OutputHandler {
+        private final String[] patterns;
+        private final Map<String, String> packagesByPath = new TreeMap<String, String>();
+        private boolean failed;
+
+        private ContentsHandler(String[] patterns) {
+            this.patterns = patterns;
+        }
+
+        public void newLine(String line) {
+            int separator = line.length() - 1;
+            while (separator > 0 && !Character.isWhitespace(line.charAt(separator))) {
+                separator--;
+            }
+            if (separator <= 0) {
+                return;
+            }
+            String path = "/" + line.substring(0, separator).trim();
+            if (!matches(path, patterns)) {
+                return;
+            }
+            for (String location : line.substring(separator + 1).split(",")) {
+                String pkg = location.substring(location.lastIndexOf('/') + 1);
+                String previous = packagesByPath.get(path);
+                // apt-file lists the packages in alphabetical order, keep the first one
+                if (previous == null || pkg.compareTo(previous) < 0) {
+                    packagesByPath.put(path, pkg);
+                }
+            }
+        }
+
+        public void failure() {
+            failed = true;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-process index of the files installed by dpkg, built from the
+ * <tt>/var/lib/dpkg/info/&lt;pkg>.list</tt> files. It answers the same
+ * questions as <tt>dpkg --search</tt> without starting a process.
+ * <p>
+ * Only the paths below the given prefixes are kept in memory, the lookups
+ * for the other paths must still be delegated to dpkg. The paths are kept
+ * in a sorted array, the files below a directory are found with a binary
+ * search followed by a scan of the range of paths sharing the same prefix.
+ */
+public class DpkgFileIndex {
+
+    public static final File DPKG_INFO_DIR = new File("/var/lib/dpkg/info");
+
+    private final String[] prefixes;
+    /** The indexed paths, sorted */
+    private String[] paths = new String[0];
+    /** The package owning each path */
+    private String[] packages = new String[0];
+    private boolean available;
+
+    public DpkgFileIndex(File infoDir, String... prefixes) {
+        this.prefixes = prefixes;
+        load(infoDir);
+    }
+
+    private void load(File infoDir) {
+        File[] lists = infoDir.listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".list");
+            }
+        });
+        if (lists == null) {
+            return;
+        }
+        Map<String, String> packagesByPath = new HashMap<String, String>();
+        for (File list : lists) {
+            String pkg = list.getName().substring(0, list.getName().length() - ".list".length());
+            // Multi-arch packages are listed as <pkg>:<arch>.list
+            if (pkg.indexOf(':') > 0) {
+                pkg = pkg.substring(0, pkg.indexOf(':'));
+            }
+            pkg = pkg.intern();
+            try {
+                BufferedReader in = new BufferedReader(new FileReader(list));
+                try {
+                    String path;
+                    while ((path = in.readLine()) != null) {
+                        if (isIndexed(path)) {
+                            String owner = packagesByPath.get(path);
+                            // dpkg lists the owners of a shared path in alphabetical order, keep the first one
+                            if (owner == null || pkg.compareTo(owner) < 0) {
+                                packagesByPath.put(path, pkg);
+                            }
+                        }
+                    }
+                } finally {
+                    in.close();
+                }
+            } catch (IOException e) {
+                System.err.println("Cannot read " + list + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        paths = packagesByPath.keySet().toArray(new String[packagesByPath.size()]);
+        Arrays.sort(paths);
+        packages = new String[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            packages[i] = packagesByPath.get(paths[i]);
+        }
+        available = true;
+    }
+
+    private boolean isIndexed(String path) {
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells if the index can answer for the specified file. If not, the
+     * caller should fall back to <tt>dpkg --search</tt>.
+     */
+    public boolean covers(File file) {
+        return available && isIndexed(file.getAbsolutePath() + "/");
+    }
+
+    /**
+     * Returns the package owning the specified file, or null if the file
+     * doesn't belong to any installed package.
+     */
+    public String getPackage(File file) {
+        int index = Arrays.binarySearch(paths, file.getAbsolutePath());
+        return index >= 0 ? packages[index] : null;
+    }
+
+    /**
+     * Returns the files matching the pattern <tt>dir/*&#47;*</tt> as interpreted
+     * by <tt>dpkg --search</tt> and ending with the specified extension,
+     * mapped to the package owning them.
+     */
+    public Map<String, String> getPackagesAndFiles(File dir, String extension) {
+        String base = dir.getAbsolutePath() + "/";
+        Map<String, String> result = getPackagesAndFiles(base, extension);
+        for (Iterator<String> it = result.keySet().iterator(); it.hasNext();) {
+            if (!isInSubdirectory(it.next(), base)) {
+                it.remove();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tells if the path matches the pattern <tt>base*&#47;*</tt>.
+     */
+    static boolean isInSubdirectory(String path, String base) {
+        // dpkg uses fnmatch without FNM_PATHNAME, '*' also matches '/'
+        return path.indexOf('/', base.length()) > base.length();
+    }
+
+    /**
+     * Returns the files starting with the specified prefix and ending with
+     * the specified extension, mapped to the package owning them.
+     */
+    public Map<String, String> getPackagesAndFiles(String prefix, String extension) {
+        Map<String, String> result = new TreeMap<String, String>();
+        int start = Arrays.binarySearch(paths, prefix);
+        if (start < 0) {
+            start = -start - 1;
+        }
+        for (int i = start; i < paths.length && paths[i].startsWith(prefix); i++) {
+            if (paths[i].endsWith(extension)) {
+                result.put(paths[i], packages[i]);
+            }
+        }
+        return result;
+    }
+}
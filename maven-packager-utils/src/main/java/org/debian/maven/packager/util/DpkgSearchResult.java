@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses the output of the <tt>dpkg --search</tt> command for several files,
+ * without logging the files found.
+ * <p>
+ * The format expected is:
+ * <pre>
+ *     &lt;pkg>[:&lt;arch>][, &lt;pkg>[:&lt;arch>]]: &lt;file>
+ * </pre>
+ * The architecture qualifier of the Multi-Arch packages is removed, and the
+ * first package is retained when a file is shared by several packages.
+ */
+public class DpkgSearchResult implements OutputHandler {
+
+    private final Map<String, String> result = new HashMap<String, String>();
+
+    public void newLine(String line) {
+        int separator = line.indexOf(": ");
+        if (separator <= 0) {
+            return;
+        }
+        String packages = line.substring(0, separator);
+        int end = packages.indexOf(',');
+        String pkg = end > 0 ? packages.substring(0, end) : packages;
+        int arch = pkg.indexOf(':');
+        if (arch > 0) {
+            pkg = pkg.substring(0, arch);
+        }
+        // Ignore lines such as 'diversion by xxx from: yyy' or 'dpkg-query: xxx'
+        if (pkg.length() == 0 || pkg.indexOf(' ') >= 0 || pkg.startsWith("dpkg")) {
+            return;
+        }
+        String file = line.substring(separator + 2).trim();
+        if (!result.containsKey(file)) {
+            result.put(file, pkg);
+        }
+    }
+
+    public void failure() {
+    }
+
+    /**
+     * Returns the package containing each file found, indexed by the absolute path of the file.
+     */
+    public Map<String, String> getPackagesAndFiles() {
+        return result;
+    }
+}
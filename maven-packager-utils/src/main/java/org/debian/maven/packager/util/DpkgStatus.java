@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Versions of the installed packages, read from the dpkg status file
+ * (<tt>/var/lib/dpkg/status</tt>). It replaces the calls to <tt>dpkg --status</tt>.
+ * <p>
+ * The versions are returned without the Debian revision, like
+ * {@link GetPackageVersionResult} does.
+ */
+public class DpkgStatus {
+
+    public static final File DPKG_STATUS_FILE = new File("/var/lib/dpkg/status");
+
+    private final Map<String, String> versions = new HashMap<String, String>();
+    private boolean available;
+
+    public DpkgStatus(File statusFile) {
+        if (statusFile.exists()) {
+            try {
+                read(statusFile);
+                available = true;
+            } catch (IOException e) {
+                System.err.println("Cannot read " + statusFile + ": " + e.getMessage());
+                versions.clear();
+            }
+        }
+    }
+
+    private void read(File statusFile) throws IOException {
+        BufferedReader in = new BufferedReader(new FileReader(statusFile));
+        try {
+            String pkg = null;
+            String version = null;
+            boolean installed = false;
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null || line.isEmpty()) {
+                    // end of the record
+                    if (pkg != null && version != null && installed && !versions.containsKey(pkg)) {
+                        versions.put(pkg.intern(), GetPackageVersionResult.toUpstreamVersion(version));
+                    }
+                    pkg = null;
+                    version = null;
+                    installed = false;
+                } else if (line.startsWith("Package:")) {
+                    pkg = line.substring("Package:".length()).trim();
+                } else if (line.startsWith("Version:")) {
+                    version = line.substring("Version:".length()).trim();
+                } else if (line.startsWith("Status:")) {
+                    installed = line.endsWith(" installed");
+                }
+            } while (line != null);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Tells if the status file could be read. If not the versions
+     * should be requested to dpkg.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Returns the version of the specified package, or null if the package is not installed.
+     */
+    public String getVersion(String pkg) {
+        return versions.get(pkg);
+    }
+}
@@ -30,12 +30,7 @@ public class GetPackageVersionResult implements OutputHandler {
         }
         if (line.startsWith("Version:")) {
             int space = line.indexOf(' ');
-            result = line.substring(space + 1, line.length()).trim();
-            int dash = result.lastIndexOf('-');
-            if (dash > 0) {
-                result = result.substring(0, dash);
-            }
-            result = result.replace('~', '-');
+            result = toUpstreamVersion(line.substring(space + 1, line.length()).trim());
         } else {
             Matcher matcher = APT_VERSION_PATTERN.matcher(line);
             if (matcher.find()) {
@@ -45,6 +40,17 @@ public class GetPackageVersionResult implements OutputHandler {
         }
     }
 
+    /**
+     * Removes the Debian revision from the version of a package.
+     */
+    static String toUpstreamVersion(String version) {
+        int dash = version.lastIndexOf('-');
+        if (dash > 0) {
+            version = version.substring(0, dash);
+        }
+        return version.replace('~', '-');
+    }
+
     public void failure() {
     }
 
@@ -20,67 +20,213 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class IOUtil {
 
+    /** Default maximum duration of a command, in milliseconds */
+    public static final long DEFAULT_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    /** Maximum number of commands executed concurrently in the background */
+    private static final int MAX_BACKGROUND_COMMANDS = 4;
+
+    /** Maximum number of threads reading the output of the commands */
+    private static final int MAX_READERS = 16;
+
+    /**
+     * Threads reading the output of the commands, shared by all the commands.
+     * The output is never read by the thread executing the command, which
+     * would then be unable to enforce the timeout. When all the readers are
+     * busy the output is read once a reader is available, and the command is
+     * still killed after the timeout. The idle threads are released after a
+     * minute.
+     */
+    private static final ThreadPoolExecutor READERS = new ThreadPoolExecutor(MAX_READERS, MAX_READERS,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), daemonThreadFactory("Command output reader"));
+
+    /** Threads executing the commands started by executeProcessAsync */
+    private static final ThreadPoolExecutor BACKGROUND_COMMANDS = new ThreadPoolExecutor(MAX_BACKGROUND_COMMANDS, MAX_BACKGROUND_COMMANDS,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), daemonThreadFactory("Background command"));
+
+    static {
+        READERS.allowCoreThreadTimeOut(true);
+        BACKGROUND_COMMANDS.allowCoreThreadTimeOut(true);
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String name) {
+        return new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            }
+        };
+    }
+
+    private static volatile boolean quiet;
+
+    /**
+     * In quiet mode the commands executed and their failures are not displayed.
+     */
+    public static void setQuiet(boolean quiet) {
+        IOUtil.quiet = quiet;
+    }
+
     public static void executeProcess(final String[] cmd, final OutputHandler handler) {
+        executeProcess(cmd, handler, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Executes a command and passes each line of its output (stdout and stderr)
+     * to the handler.
+     *
+     * @param cmd     the command and its arguments
+     * @param handler the handler receiving the output
+     * @param timeout the time in milliseconds after which the command is killed,
+     *                0 to wait until the command completes
+     */
+    public static void executeProcess(final String[] cmd, final OutputHandler handler, long timeout) {
+        long start = Trace.now();
         try {
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            pb.redirectErrorStream(true);
-            System.out.print("> ");
-            for (String arg : cmd) {
-                System.out.print(arg + " ");
+            runProcess(cmd, handler, timeout);
+        } finally {
+            if (Trace.isEnabled()) {
+                Trace.count("subprocess");
+                Trace.event("subprocess", cmd.length > 1 ? cmd[0] + " " + cmd[1] : cmd[0], start);
             }
-            System.out.println();
-            final Process process = pb.start();
-            try {
-                ThreadFactory threadFactory = new ThreadFactory() {
+        }
+    }
 
-                    public Thread newThread(Runnable r) {
-                        Thread t = new Thread(r, "Run command " + cmd[0]);
-                        t.setDaemon(true);
-                        return t;
-                    }
-                };
+    private static void runProcess(final String[] cmd, final OutputHandler handler, long timeout) {
+        if (!quiet) {
+            // print the command at once, other commands may run concurrently
+            StringBuilder echo = new StringBuilder("> ");
+            for (String arg : cmd) {
+                echo.append(arg).append(' ');
+            }
+            System.out.println(echo);
+        }
 
-                ExecutorService executor = Executors.newSingleThreadExecutor(threadFactory);
-                executor.execute(new Runnable() {
+        final Process process;
+        try {
+            ProcessBuilder pb = new ProcessBuilder(cmd);
+            pb.redirectErrorStream(true);
+            process = pb.start();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            handler.failure();
+            return;
+        }
 
-                    public void run() {
+        try {
+            Future<?> reader = READERS.submit(new Runnable() {
+                public void run() {
+                    try {
+                        BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()));
                         try {
-                            BufferedReader in = new BufferedReader(new BufferedReader(new InputStreamReader(process.getInputStream())));
                             String line;
                             while ((line = in.readLine()) != null) {
                                 handler.newLine(line);
                             }
+                        } finally {
                             in.close();
-                        } catch (IOException ex) {
-                            ex.printStackTrace();
                         }
+                    } catch (IOException ex) {
+                        ex.printStackTrace();
                     }
-                });
+                }
+            });
 
-                process.waitFor();
-                executor.awaitTermination(5, TimeUnit.SECONDS);
-                if (process.exitValue() != 0) {
-                    System.out.println(cmd[0] + " failed to execute successfully");
-                    handler.failure();
+            try {
+                if (timeout > 0) {
+                    reader.get(timeout, TimeUnit.MILLISECONDS);
+                } else {
+                    reader.get();
                 }
+            } catch (TimeoutException e) {
+                System.err.println(cmd[0] + " didn't complete after " + timeout / 1000 + " seconds and was killed");
                 process.destroy();
-            } catch (InterruptedException ex) {
-                ex.printStackTrace();
-                Thread.interrupted();
+                reader.cancel(true);
+                handler.failure();
+                return;
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
             }
-        } catch (IOException ex) {
-            ex.printStackTrace();
+
+            if (process.waitFor() != 0) {
+                if (!quiet) {
+                    System.out.println(cmd[0] + " failed to execute successfully");
+                }
+                handler.failure();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
             handler.failure();
+        } finally {
+            process.destroy();
         }
     }
 
+    public static <T extends OutputHandler> Future<T> executeProcessAsync(String[] cmd, T handler) {
+        return executeProcessAsync(cmd, handler, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Executes a command in the background. The future returns the handler
+     * once the command has completed, cancelling the future kills the command.
+     *
+     * @param cmd     the command and its arguments
+     * @param handler the handler receiving the output
+     * @param timeout the time in milliseconds after which the command is killed,
+     *                0 to wait until the command completes
+     */
+    public static <T extends OutputHandler> Future<T> executeProcessAsync(final String[] cmd, final T handler, final long timeout) {
+        return BACKGROUND_COMMANDS.submit(new Callable<T>() {
+            public T call() {
+                executeProcess(cmd, handler, timeout);
+                return handler;
+            }
+        });
+    }
+
+    /**
+     * Waits for the completion of a command started by executeProcessAsync.
+     *
+     * @return the handler of the command, or null if the command has been cancelled
+     */
+    public static <T extends OutputHandler> T await(Future<T> command) {
+        try {
+            return command.get();
+        } catch (CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            command.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Stops the threads executing the commands and reading their output,
+     * and kills the commands still running. No command can be executed
+     * afterwards, this is meant to be called when a program exits.
+     */
+    public static void shutdown() {
+        BACKGROUND_COMMANDS.shutdownNow();
+        READERS.shutdownNow();
+    }
+
     public static void mkDirIfNotExists(File file) {
         if (!file.exists()) {
             file.mkdirs();
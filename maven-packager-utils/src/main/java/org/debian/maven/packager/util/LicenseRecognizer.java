@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Recognizes a license from its name and/or its URL, and returns its short
+ * name as used in the debian/copyright files.
+ * <p>
+ * The licenses are described in a table listing the keywords identifying
+ * each license, and the name of the license for each of its versions. The
+ * keywords of all the licenses and the version numbers are compiled into a
+ * single Aho-Corasick automaton, the name and the URL are then matched in
+ * a single pass without allocating memory.
+ * <p>
+ * The table is followed by the identifiers of the SPDX License List, matched
+ * as whole words. They only apply when no license of the table matched, so
+ * the usual licenses keep the short names of the debian/copyright files
+ * (GPL-2.0-only is reported as GPL-2).
+ * <p>
+ * When several licenses match, the first one in the table wins (for example
+ * LGPL before GPL). If a license is recognized but its version is required
+ * and not found, the license is not recognized.
+ */
+public class LicenseRecognizer {
+
+    private static final String V1_0 = "1.0";
+    private static final String V1_1 = "1.1";
+    private static final String V1_2 = "1.2";
+    private static final String V1_3 = "1.3";
+    private static final String V2 = "2";
+    private static final String V2_1 = "2.1";
+    private static final String V2_5 = "2.5";
+    private static final String V3 = "3";
+    private static final String V4 = "4";
+
+    /**
+     * The keywords identifying the versions. The text matched is lower cased,
+     * and the characters other than letters, digits, dots and dashes are
+     * replaced by a single space, a space is also added at the beginning and
+     * at the end of the name and of the URL.
+     */
+    private static final String[][] VERSIONS = {
+        {V1_0, "1.0", "v1 ", "version 1 "},
+        {V1_1, "1.1"},
+        {V1_2, "1.2"},
+        {V1_3, "1.3"},
+        {V2, "2.0", "v2", "version 2", " 2 ", "-2 "},
+        {V2_1, "2.1"},
+        {V2_5, "2.5"},
+        {V3, "3.0", "v3", "version 3", " 3 ", "-3 "},
+        {V4, "4.0", "v4", "version 4", " 4 ", "-4 "},
+    };
+
+    /**
+     * The licenses, by order of precedence. Each license is described by its
+     * keywords, followed by the pairs of version and name, and the default
+     * name used when no version is found (null if the version is required).
+     */
+    private static final Object[][] LICENSES = {
+        {words("cc-by-nc-sa", "licenses by-nc-sa ", "attribution-noncommercial-sharealike"),
+                versions(V4, "CC-BY-NC-SA-4.0", V3, "CC-BY-NC-SA-3.0", V2_5, "CC-BY-NC-SA-2.5", V2, "CC-BY-NC-SA-2.0"), "CC-BY-NC-SA"},
+        {words("cc-by-nc-nd", "licenses by-nc-nd ", "attribution-noncommercial-noderivs"),
+                versions(V4, "CC-BY-NC-ND-4.0", V3, "CC-BY-NC-ND-3.0", V2_5, "CC-BY-NC-ND-2.5", V2, "CC-BY-NC-ND-2.0"), "CC-BY-NC-ND"},
+        {words("cc-by-nc", "licenses by-nc ", "attribution-noncommercial"),
+                versions(V4, "CC-BY-NC-4.0", V3, "CC-BY-NC-3.0", V2_5, "CC-BY-NC-2.5", V2, "CC-BY-NC-2.0"), "CC-BY-NC"},
+        {words("cc-by-sa", "licenses by-sa ", "attribution-sharealike", "attribution share alike"),
+                versions(V4, "CC-BY-SA-4.0", V3, "CC-BY-SA-3.0", V2_5, "CC-BY-SA-2.5", V2, "CC-BY-SA-2.0"), "CC-BY-SA"},
+        {words("cc-by-nd", "licenses by-nd ", "attribution-noderivs"),
+                versions(V4, "CC-BY-ND-4.0", V3, "CC-BY-ND-3.0", V2_5, "CC-BY-ND-2.5", V2, "CC-BY-ND-2.0"), "CC-BY-ND"},
+        {words("cc0", "publicdomain zero", "creative commons zero"), versions(), "CC0"},
+        {words("cc-by", "licenses by ", "creative commons attribution"),
+                versions(V4, "CC-BY-4.0", V3, "CC-BY-3.0", V2_5, "CC-BY-2.5", V2, "CC-BY-2.0"), "CC-BY"},
+        {words("agpl", "affero"), versions(V3, "AGPL-3"), "AGPL-3"},
+        {words("lgpl", "lesser general public", "library general public"),
+                versions(V2_1, "LGPL-2.1", V3, "LGPL-3", V2, "LGPL-2"), null},
+        {words("gfdl", "free documentation license"), versions(V1_3, "GFDL-1.3", V1_2, "GFDL-1.2"), "GFDL"},
+        {words("gpl", "general public license"), versions(V2, "GPL-2", V3, "GPL-3"), null},
+        {words("apache"), versions(V2, "Apache-2.0", V1_0, "Apache-1.0", V1_1, "Apache-1.1"), null},
+        {words(" mpl", "mozilla public"), versions(V2, "MPL-2.0", V1_1, "MPL-1.1", V1_0, "MPL-1.0"), "MPL"},
+        {words(" epl", "eclipse public"), versions(V1_0, "EPL-1.0", V2, "EPL-2.0"), "EPL"},
+        {words("cddl", "common development and distribution"), versions(), "CDDL"},
+        {words(" cpl", "common public license"), versions(), "CPL"},
+        {words("artistic"), versions(), "Artistic"},
+        {words(" mit ", "mit-license"), versions(), "MIT"},
+        {words("expat"), versions(), "Expat"},
+        {words("freebsd", "bsd-2-clause", "simplified bsd"), versions(), "FreeBSD"},
+        {words(" bsd"), versions(), "BSD"},
+        {words(" isc "), versions(), "ISC"},
+        {words("eiffel"), versions(), "Eiffel"},
+        {words("lppl", "latex project public"), versions(), "LPPL"},
+        {words("same terms as perl", " perl license", "perl artistic"), versions(), "Perl"},
+        {words(" psf", "python software foundation"), versions(), "PSF"},
+        {words(" qpl", "q public license"), versions(), "QPL"},
+        {words(" w3c"), versions(), "W3C-Software"},
+        {words("zlib"), versions(), "ZLIB"},
+        {words(" zpl", "zope public"), versions(), "Zope"},
+    };
+
+    /** The SPDX license identifiers, generated from the SPDX License List */
+    private static final String[] SPDX_LICENSES = loadSpdxLicenses("/spdx-licenses.txt");
+
+    /** The characters matched by the automaton, the other characters are considered as spaces */
+    private static final String ALPHABET = " .-abcdefghijklmnopqrstuvwxyz0123456789";
+
+    /** Index in the alphabet of each ASCII character, 0 (space) for the others */
+    private static final int[] SYMBOLS = new int[128];
+
+    static {
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            SYMBOLS[ALPHABET.charAt(i)] = i;
+            SYMBOLS[Character.toUpperCase(ALPHABET.charAt(i))] = i;
+        }
+    }
+
+    /** The transitions of the automaton, indexed by state * ALPHABET.length() + symbol */
+    private final int[] transitions;
+    /** The first license matched in each state, Integer.MAX_VALUE if none */
+    private final int[] licenseMatched;
+    /** The versions matched in each state, one bit per version */
+    private final long[] versionsMatched;
+    /** The bit of each version listed for each license */
+    private final long[][] licenseVersionBits = new long[LICENSES.length][];
+
+    public LicenseRecognizer() {
+        List<int[]> trie = new ArrayList<int[]>();
+        List<Integer> licenses = new ArrayList<Integer>();
+        List<Long> versions = new ArrayList<Long>();
+        trie.add(new int[ALPHABET.length()]);
+        licenses.add(Integer.MAX_VALUE);
+        versions.add(0L);
+
+        for (int i = 0; i < LICENSES.length; i++) {
+            for (String keyword : (String[]) LICENSES[i][0]) {
+                int state = addKeyword(trie, licenses, versions, keyword);
+                licenses.set(state, Math.min(licenses.get(state), i));
+            }
+        }
+        for (int i = 0; i < SPDX_LICENSES.length; i++) {
+            int state = addKeyword(trie, licenses, versions, " " + SPDX_LICENSES[i] + " ");
+            licenses.set(state, Math.min(licenses.get(state), LICENSES.length + i));
+        }
+        for (int i = 0; i < VERSIONS.length; i++) {
+            for (int j = 1; j < VERSIONS[i].length; j++) {
+                int state = addKeyword(trie, licenses, versions, VERSIONS[i][j]);
+                versions.set(state, versions.get(state) | (1L << i));
+            }
+        }
+
+        licenseMatched = new int[trie.size()];
+        versionsMatched = new long[trie.size()];
+        for (int state = 0; state < trie.size(); state++) {
+            licenseMatched[state] = licenses.get(state);
+            versionsMatched[state] = versions.get(state);
+        }
+        transitions = computeTransitions(trie);
+
+        for (int i = 0; i < LICENSES.length; i++) {
+            String[] licenseVersions = (String[]) LICENSES[i][1];
+            licenseVersionBits[i] = new long[licenseVersions.length / 2];
+            for (int j = 0; j < licenseVersions.length; j += 2) {
+                licenseVersionBits[i][j / 2] = 1L << indexOfVersion(licenseVersions[j]);
+            }
+        }
+    }
+
+    private int addKeyword(List<int[]> trie, List<Integer> licenses, List<Long> versions, String keyword) {
+        int state = 0;
+        for (char c : keyword.toCharArray()) {
+            int symbol = SYMBOLS[c];
+            if (trie.get(state)[symbol] == 0) {
+                trie.get(state)[symbol] = trie.size();
+                trie.add(new int[ALPHABET.length()]);
+                licenses.add(Integer.MAX_VALUE);
+                versions.add(0L);
+            }
+            state = trie.get(state)[symbol];
+        }
+        return state;
+    }
+
+    /**
+     * Turns the trie into a deterministic automaton: the missing transitions
+     * follow the failure links, and each state inherits the matches of the
+     * state its failure link points to. The states are visited breadth first.
+     */
+    private int[] computeTransitions(List<int[]> trie) {
+        int symbols = ALPHABET.length();
+        int[] failure = new int[trie.size()];
+        Queue<Integer> queue = new LinkedList<Integer>();
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            if (trie.get(0)[symbol] != 0) {
+                queue.add(trie.get(0)[symbol]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            licenseMatched[state] = Math.min(licenseMatched[state], licenseMatched[failure[state]]);
+            versionsMatched[state] |= versionsMatched[failure[state]];
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                int next = trie.get(state)[symbol];
+                if (next != 0) {
+                    failure[next] = trie.get(failure[state])[symbol];
+                    queue.add(next);
+                } else {
+                    trie.get(state)[symbol] = trie.get(failure[state])[symbol];
+                }
+            }
+        }
+
+        int[] table = new int[trie.size() * symbols];
+        for (int state = 0; state < trie.size(); state++) {
+            System.arraycopy(trie.get(state), 0, table, state * symbols, symbols);
+        }
+        return table;
+    }
+
+    /**
+     * Returns the short name of the license identified by the name and the
+     * URL specified, or null if the license is not recognized.
+     */
+    public String recognize(String licenseName, String licenseUrl) {
+        int symbols = ALPHABET.length();
+        int license = Integer.MAX_VALUE;
+        long versions = 0;
+        int state = transitions[0];
+        int previous = 0;
+        for (int part = 0; part < 2; part++) {
+            String text = part == 0 ? licenseName : licenseUrl;
+            int length = text != null ? text.length() : 0;
+            // the text is surrounded by spaces to match the keywords at the beginning and at the end
+            for (int i = 0; i <= length; i++) {
+                char c = i < length ? text.charAt(i) : ' ';
+                int symbol = c < 128 ? SYMBOLS[c] : 0;
+                if (symbol == 0 && previous == 0) {
+                    // consecutive spaces are matched as a single space
+                    continue;
+                }
+                state = transitions[state * symbols + symbol];
+                license = Math.min(license, licenseMatched[state]);
+                versions |= versionsMatched[state];
+                previous = symbol;
+            }
+        }
+
+        if (license == Integer.MAX_VALUE) {
+            return null;
+        }
+        if (license >= LICENSES.length) {
+            return SPDX_LICENSES[license - LICENSES.length];
+        }
+        for (int i = 0; i < licenseVersionBits[license].length; i++) {
+            if ((versions & licenseVersionBits[license][i]) != 0) {
+                return ((String[]) LICENSES[license][1])[2 * i + 1];
+            }
+        }
+        return (String) LICENSES[license][2];
+    }
+
+    private static int indexOfVersion(String version) {
+        for (int i = 0; i < VERSIONS.length; i++) {
+            if (VERSIONS[i][0].equals(version)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown version " + version);
+    }
+
+    /**
+     * Loads the license identifiers listed in the resource specified, one per
+     * line, ignoring the comments starting with '#'.
+     */
+    private static String[] loadSpdxLicenses(String resource) {
+        List<String> identifiers = new ArrayList<String>();
+        InputStream in = LicenseRecognizer.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Missing resource " + resource);
+        }
+        try {
+            try {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.length() > 0 && !line.startsWith("#")) {
+                        identifiers.add(line);
+                    }
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + resource, e);
+        }
+        return identifiers.toArray(new String[identifiers.size()]);
+    }
+
+    private static String[] words(String... keywords) {
+        return keywords;
+    }
+
+    private static String[] versions(String... versionsAndNames) {
+        return versionsAndNames;
+    }
+}
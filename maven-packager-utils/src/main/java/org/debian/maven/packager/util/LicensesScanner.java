@@ -19,11 +19,21 @@ package org.debian.maven.packager.util;
 import org.apache.maven.model.License;
 import org.debian.maven.packager.interaction.SimpleQuestion;
 
+import java.io.File;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
 public class LicensesScanner {
+
+    /**
+     * The file caching the licenses detected in the upstream sources. It's kept
+     * in debian/.mh, which is removed by mh_clean and never reaches the source package.
+     */
+    static final String LICENSES_CACHE = "debian/.mh/licenses.cache";
+
+    private final LicenseRecognizer recognizer = new LicenseRecognizer();
+
     public Set<String> discoverLicenses(List<License> projectLicenses) {
         Set<String> licenses = new TreeSet<String>();
         for (License license : projectLicenses) {
@@ -47,10 +57,7 @@ public class LicensesScanner {
 
         System.out.println();
         System.out.println("Checking licenses in the upstream sources...");
-        LicenseCheckResult licenseResult = new LicenseCheckResult();
-        IOUtil.executeProcess(new String[]{"/bin/sh", "-c", "licensecheck `find . -type f`"},
-                licenseResult);
-        for (String license : licenseResult.getLicenses()) {
+        for (String license : new SourceLicenseDetector(new File(LICENSES_CACHE)).scan(new File("."))) {
             boolean recognized = recognizeLicense(licenses, license, "");
             if (!recognized) {
                 String s = new SimpleQuestion("License " + license + " was not recognized, " +
@@ -72,59 +79,16 @@ public class LicensesScanner {
 
     private String getAvailableLicenses() {
         return "Apache-2.0 Artistic BSD FreeBSD ISC CC-BY CC-BY-SA CC-BY-ND CC-BY-NC CC-BY-NC-SA\n"
-         + "CC-BY-NC-ND CC0 CDDL CPL Eiffel Expat GPL-2 GPL-3 LGPL-2 LGPL-2.1 LGPL-3"
-         + "GFDL-1.2 GFDL-1.3 GFDL-NIV LPPL MPL Perl PSF QPL W3C-Software ZLIB Zope";
+         + "CC-BY-NC-ND CC0 CDDL CPL Eiffel EPL-1.0 Expat GPL-2 GPL-3 AGPL-3 LGPL-2 LGPL-2.1 LGPL-3\n"
+         + "GFDL-1.2 GFDL-1.3 GFDL-NIV LPPL MIT MPL-1.1 MPL-2.0 Perl PSF QPL W3C-Software ZLIB Zope";
     }
 
     boolean recognizeLicense(Set<String> licenses, String licenseName, String licenseUrl) {
-        boolean recognized = false;
-        licenseName = licenseName.toLowerCase();
-        licenseUrl = licenseUrl.toLowerCase();
-        if (licenseName.contains("mit ") || licenseUrl.contains("mit-license")) {
-            licenses.add("MIT");
-            recognized = true;
-        } else if (licenseName.contains("bsd ") || licenseUrl.contains("bsd-license")) {
-            licenses.add("BSD");
-            recognized = true;
-        } else if (licenseName.contains("artistic ") || licenseUrl.contains("artistic-license")) {
-            licenses.add("Artistic");
-            recognized = true;
-        } else if (licenseName.contains("apache ") || licenseUrl.contains("apache")) {
-            if (licenseName.contains("2.") || licenseUrl.contains("2.")) {
-                licenses.add("Apache-2.0");
-                recognized = true;
-            } else if (licenseName.contains("1.0") || licenseUrl.contains("1.0")) {
-                licenses.add("Apache-1.0");
-                recognized = true;
-            } else if (licenseName.contains("1.1") || licenseUrl.contains("1.1")) {
-                licenses.add("Apache-1.1");
-                recognized = true;
-            }
-        } else if (licenseName.contains("lgpl ") || licenseUrl.contains("lgpl")) {
-            if (licenseName.contains("2.1") || licenseUrl.contains("2.1")) {
-                licenses.add("LGPL-2.1");
-                recognized = true;
-            } else if (licenseName.contains("2") || licenseUrl.contains("2")) {
-                licenses.add("LGPL-2");
-                recognized = true;
-            } else if (licenseName.contains("3") || licenseUrl.contains("3")) {
-                licenses.add("LGPL-2");
-                recognized = true;
-            }
-        } else if (licenseName.contains("gpl ") || licenseUrl.contains("gpl")) {
-            if (licenseName.contains("2") || licenseUrl.contains("2")) {
-                licenses.add("GPL-2");
-                recognized = true;
-            } else if (licenseName.contains("3") || licenseUrl.contains("3")) {
-                licenses.add("GPL-3");
-                recognized = true;
-            }
-
-        } else if (licenseUrl.contains("http://creativecommons.org/licenses/by-sa/3.0")) {
-            licenses.add("CC-BY-SA-3.0");
-            recognized = true;
+        String license = recognizer.recognize(licenseName, licenseUrl);
+        if (license != null) {
+            licenses.add(license);
         }
-        return recognized;
+        return license != null;
     }
 
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.debian.maven.util.Strings;
+
+/**
+ * Keeps the results of the {@link PackageScanner} lookups between two runs
+ * of the tools. The content of the file is ignored as soon as the dpkg
+ * database is modified (a package has been installed or removed), or the
+ * apt lists searched by apt-file for the packages not installed are updated.
+ */
+public class PackageCacheFile {
+
+    /** Version of the file format, to be increased when the content changes */
+    private static final String FORMAT_VERSION = "1";
+
+    private static final String FILE_PREFIX = "file.";
+    private static final String VERSION_PREFIX = "version.";
+    private static final String JARS_PREFIX = "jars.";
+
+    private final File file;
+    private final String stamp;
+
+    public PackageCacheFile(File file) {
+        this(file, DpkgStatus.DPKG_STATUS_FILE, DpkgFileIndex.DPKG_INFO_DIR, ContentsIndex.APT_LISTS_DIR);
+    }
+
+    PackageCacheFile(File file, File dpkgStatus, File dpkgInfoDir, File aptListsDir) {
+        this.file = file;
+        this.stamp = FORMAT_VERSION + ":" + dpkgStatus.lastModified() + ":" + dpkgInfoDir.lastModified()
+                + ":" + aptListsDir.lastModified();
+    }
+
+    /**
+     * Returns the cache in the default location, or null if the cache can't be used.
+     */
+    public static PackageCacheFile getDefault() {
+        File location = getDefaultLocation();
+        return location != null ? new PackageCacheFile(location) : null;
+    }
+
+    /**
+     * Returns the default location of the cache, in $XDG_CACHE_HOME/maven-debian-helper/
+     *
+     * @return the location of the cache, or null if it can't be used
+     */
+    public static File getDefaultLocation() {
+        return getDefaultLocation(System.getenv());
+    }
+
+    /**
+     * Returns null during a package build (DEB_BUILD_OPTIONS is set by sbuild and
+     * pbuilder) since nothing should be written outside of the build tree, and if
+     * the home directory is missing or read-only.
+     */
+    static File getDefaultLocation(Map<String, String> env) {
+        if (env.containsKey("DEB_BUILD_OPTIONS")) {
+            return null;
+        }
+        String cacheHome = env.get("XDG_CACHE_HOME");
+        File cacheDir;
+        if (cacheHome != null && !cacheHome.isEmpty()) {
+            cacheDir = new File(cacheHome);
+        } else {
+            String home = env.get("HOME");
+            if (home == null || home.isEmpty()) {
+                home = System.getProperty("user.home");
+            }
+            cacheDir = new File(home, ".cache");
+        }
+        File location = new File(cacheDir, "maven-debian-helper/packages.cache");
+        return isWritable(location.getParentFile()) ? location : null;
+    }
+
+    /**
+     * Tells if the directory exists and is writable, or can be created.
+     */
+    private static boolean isWritable(File dir) {
+        File existing = dir.getAbsoluteFile();
+        while (existing != null && !existing.exists()) {
+            existing = existing.getParentFile();
+        }
+        return existing != null && existing.isDirectory() && existing.canWrite();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Loads the cached results in the maps specified.
+     *
+     * @return false if the cache doesn't exist or is out of date
+     */
+    public boolean load(Map<File, String> filesInPackages, Map<String, String> packageVersions,
+                        Map<String, List<String>> sharedJars) {
+        if (!file.exists()) {
+            return false;
+        }
+        Properties cache = new Properties();
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                cache.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot read the package cache " + file + ": " + e.getMessage());
+            return false;
+        }
+
+        if (!stamp.equals(cache.getProperty("stamp"))) {
+            return false;
+        }
+
+        for (String key : cache.stringPropertyNames()) {
+            String value = cache.getProperty(key);
+            if (key.startsWith(FILE_PREFIX)) {
+                filesInPackages.put(new File(key.substring(FILE_PREFIX.length())), value);
+            } else if (key.startsWith(VERSION_PREFIX)) {
+                packageVersions.put(key.substring(VERSION_PREFIX.length()), value);
+            } else if (key.startsWith(JARS_PREFIX)) {
+                List<String> jars = new ArrayList<String>();
+                if (!value.isEmpty()) {
+                    jars.addAll(Arrays.asList(value.split(",")));
+                }
+                sharedJars.put(key.substring(JARS_PREFIX.length()), jars);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Saves the results specified. Failing to write the cache is not an error,
+     * the next run will just be slower.
+     */
+    public void save(Map<File, String> filesInPackages, Map<String, String> packageVersions,
+                     Map<String, List<String>> sharedJars) {
+        Properties cache = new Properties();
+        cache.setProperty("stamp", stamp);
+        for (Map.Entry<File, String> entry : filesInPackages.entrySet()) {
+            cache.setProperty(FILE_PREFIX + entry.getKey().getPath(), entry.getValue());
+        }
+        for (Map.Entry<String, String> entry : packageVersions.entrySet()) {
+            cache.setProperty(VERSION_PREFIX + entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, List<String>> entry : sharedJars.entrySet()) {
+            cache.setProperty(JARS_PREFIX + entry.getKey(), Strings.join(entry.getValue(), ","));
+        }
+
+        try {
+            IOUtil.mkDirIfNotExists(file.getParentFile());
+            // write to a temporary file first, another tool may be reading the cache
+            File tmpFile = new File(file.getPath() + ".tmp");
+            OutputStream out = new FileOutputStream(tmpFile);
+            try {
+                cache.store(out, "Cache of the packages found by maven-debian-helper");
+            } finally {
+                out.close();
+            }
+            if (!tmpFile.renameTo(file)) {
+                tmpFile.delete();
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot write the package cache " + file + ": " + e.getMessage());
+        }
+    }
+}
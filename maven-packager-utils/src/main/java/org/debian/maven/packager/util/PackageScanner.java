@@ -20,37 +20,159 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 
 import org.debian.maven.packager.DebianDependency;
 import org.debian.maven.repo.Dependency;
 
 public class PackageScanner {
 
+    /** The directories whose content is looked up in the dpkg file lists instead of calling dpkg */
+    private static final String[] INDEXED_PATHS = {"/usr/share/maven-repo/", "/usr/share/java/", "/usr/share/doc/"};
+
+    /** The paths indexed in the Contents files, only the Javadoc entry points are kept in /usr/share/doc */
+    private static final String[] CONTENTS_INDEXED_PATHS = {"/usr/share/maven-repo/", "/usr/share/java/",
+            "/usr/share/doc/*/api/index.html", "/usr/share/doc/*/apidocs/index.html"};
+
+    /** The directory containing the shared jars */
+    private static final File SHARED_JARS_DIR = new File("/usr/share/java");
+
+    /** Maximum number of files passed to a single dpkg command */
+    private static final int MAX_FILES_PER_COMMAND = 200;
+
+    /** Marks in the cache the files which don't belong to any package */
+    private static final String NOT_FOUND = "";
+
     private final boolean offline;
-    // Keep the list of known files and their package
-    private Map<File, String> filesInPackages = new HashMap<File, String>();
-    private Map<String, List<String>> cacheOfSharedJars = new HashMap<String, List<String>>();
+    // Keep the list of known files and their package (the scanner may be used by several threads)
+    private Map<File, String> filesInPackages = new ConcurrentHashMap<File, String>();
+    private Map<String, List<String>> cacheOfSharedJars = new ConcurrentHashMap<String, List<String>>();
+    // Versions of the installed packages
+    private Map<String, String> packageVersions = new ConcurrentHashMap<String, String>();
+    private DpkgFileIndex dpkgIndex;
+    private DpkgStatus dpkgStatus;
+    private ContentsIndex contentsIndex;
+    private boolean contentsIndexLoaded;
+    private PackageCacheFile cacheFile;
 
     public PackageScanner(boolean offline) {
         this.offline = offline;
     }
 
+    /**
+     * Creates a scanner reusing the results of the previous runs stored in the cache file.
+     * The cache is updated by {@link #saveCache()}.
+     *
+     * @param cacheFile the cache, or null to disable it
+     */
+    public PackageScanner(boolean offline, PackageCacheFile cacheFile) {
+        this(offline);
+        this.cacheFile = cacheFile;
+        if (cacheFile != null) {
+            cacheFile.load(filesInPackages, packageVersions, cacheOfSharedJars);
+        }
+    }
+
     public PackageScanner newInstanceWithFreshCaches() {
-        return new PackageScanner(offline);
+        PackageScanner scanner = new PackageScanner(offline);
+        scanner.cacheFile = cacheFile;
+        return scanner;
+    }
+
+    /**
+     * Saves the results of the lookups in the cache file, if any.
+     */
+    public void saveCache() {
+        if (cacheFile != null) {
+            // the files not found are not saved, they may be found later with apt-file or once a package is installed
+            Map<File, String> foundFiles = new HashMap<File, String>();
+            for (Map.Entry<File, String> entry : filesInPackages.entrySet()) {
+                if (!NOT_FOUND.equals(entry.getValue())) {
+                    foundFiles.put(entry.getKey(), entry.getValue());
+                }
+            }
+            cacheFile.save(foundFiles, packageVersions, cacheOfSharedJars);
+        }
+    }
+
+    private DebianDependency getCachedPkg(File file) {
+        String pkg = filesInPackages.get(file);
+        return NOT_FOUND.equals(pkg) ? null : new DebianDependency(pkg);
+    }
+
+    private synchronized DpkgFileIndex getDpkgIndex() {
+        if (dpkgIndex == null) {
+            long start = Trace.now();
+            dpkgIndex = new DpkgFileIndex(DpkgFileIndex.DPKG_INFO_DIR, INDEXED_PATHS);
+            Trace.event("phase", "load the dpkg index", start);
+        }
+        return dpkgIndex;
+    }
+
+    /**
+     * Returns the index of the Contents files downloaded by apt-file, stored
+     * next to the cache file. Without cache file, during a package build for
+     * example, the index is built in a temporary file deleted once mapped.
+     * Returns null if there is no Contents file.
+     */
+    private synchronized ContentsIndex getContentsIndex() {
+        if (!contentsIndexLoaded) {
+            long start = Trace.now();
+            if (cacheFile != null) {
+                File indexFile = new File(cacheFile.getFile().getParentFile(), "contents.index");
+                contentsIndex = ContentsIndex.open(ContentsIndex.APT_LISTS_DIR, indexFile, CONTENTS_INDEXED_PATHS);
+            } else if (ContentsIndex.hasContentsFiles(ContentsIndex.APT_LISTS_DIR)) {
+                try {
+                    File indexFile = File.createTempFile("contents", ".index");
+                    try {
+                        contentsIndex = ContentsIndex.open(ContentsIndex.APT_LISTS_DIR, indexFile, CONTENTS_INDEXED_PATHS);
+                    } finally {
+                        // the mapping remains valid after the file is deleted
+                        indexFile.delete();
+                    }
+                } catch (IOException e) {
+                    System.err.println("Cannot create the index of the Contents files: " + e.getMessage());
+                }
+            }
+            Trace.event("phase", "load the Contents index", start);
+        }
+        contentsIndexLoaded = true;
+        return contentsIndex;
+    }
+
+    private synchronized DpkgStatus getDpkgStatus() {
+        if (dpkgStatus == null) {
+            long start = Trace.now();
+            dpkgStatus = new DpkgStatus(DpkgStatus.DPKG_STATUS_FILE);
+            Trace.event("phase", "load the dpkg status", start);
+        }
+        return dpkgStatus;
     }
 
     public DebianDependency searchPkg(File dir, String extension) {
         // lookup the cache first
         File cacheId = new File(dir, "<ANY>" + extension);        
-        if (filesInPackages.containsKey(cacheId)) {
-            return new DebianDependency(filesInPackages.get(cacheId));
+        boolean cached = filesInPackages.containsKey(cacheId);
+        Trace.cache("packages", cached);
+        if (cached) {
+            return getCachedPkg(cacheId);
         }
 
         GetPackageContainingPatternResult packageResult = new GetPackageContainingPatternResult(extension);
 
-        IOUtil.executeProcess(new String[]{"dpkg", "--search", dir.getAbsolutePath() + "/*/*"}, packageResult);
+        if (getDpkgIndex().covers(dir)) {
+            for (Map.Entry<String, String> entry : getDpkgIndex().getPackagesAndFiles(dir, extension).entrySet()) {
+                packageResult.newLine(entry.getValue() + ": " + entry.getKey());
+            }
+        } else {
+            IOUtil.executeProcess(new String[]{"dpkg", "--search", dir.getAbsolutePath() + "/*/*"}, packageResult);
+        }
 
         if (!packageResult.getPackages().isEmpty()) {
             String pkg = packageResult.getPackages().iterator().next();
@@ -58,24 +180,41 @@ public class PackageScanner {
             return new DebianDependency(pkg);
         }
 
+        ContentsIndex contents = getContentsIndex();
+        if (contents != null && contents.covers(dir)) {
+            for (Map.Entry<String, String> entry : contents.getPackagesAndFiles(dir, extension).entrySet()) {
+                packageResult.newLine(entry.getValue() + ": " + entry.getKey());
+            }
+            if (!packageResult.getPackages().isEmpty()) {
+                String pkg = packageResult.getPackages().iterator().next();
+                filesInPackages.put(cacheId, pkg);
+                return new DebianDependency(pkg);
+            }
+            filesInPackages.put(cacheId, NOT_FOUND);
+            return null;
+        }
+
         // Debian policy prevents the use of apt-file during a build
         if (offline) {
             System.err.println("Offline mode. Give up looking for package containing " + dir);
+            filesInPackages.put(cacheId, NOT_FOUND);
             return null;
         }
 
         if (!new File("/usr/bin/apt-file").exists()) {
             System.err.println("/usr/bin/apt-file not found. Give up looking for package containing " + dir);
+            filesInPackages.put(cacheId, NOT_FOUND);
             return null;
         }
         IOUtil.executeProcess(new String[]{"apt-file", "search", dir.getAbsolutePath()}, packageResult);
         if (!packageResult.getPackages().isEmpty()) {
             String pkg = packageResult.getPackages().iterator().next();
             filesInPackages.put(cacheId, pkg);
-            new DebianDependency(pkg);
+            return new DebianDependency(pkg);
         }
-        
-        return null; 
+
+        filesInPackages.put(cacheId, NOT_FOUND);
+        return null;
     }
 
 
@@ -95,72 +234,262 @@ public class PackageScanner {
      * @param dependency
      */
     public DebianDependency searchJavaDocPkg(DebianDependency dependency) {
-        DebianDependency pkg = searchPkg(new File("/usr/share/doc/" + dependency.getPackageName() + "/api/index.html"));
-        if (pkg == null) {
-            pkg = searchPkg(new File("/usr/share/doc/" + dependency.getPackageName() + "-doc/api/index.html"));
-        }
-        if (pkg == null) {
-            pkg = searchPkg(new File("/usr/share/doc/" + dependency.getPackageName() + "/apidocs/index.html"));
-        }
-        if (pkg == null) {
-            pkg = searchPkg(new File("/usr/share/doc/" + dependency.getPackageName() + "-doc/apidocs/index.html"));
+        List<File> candidates = getJavaDocCandidates(dependency);
+        // the installed packages are searched together, the packages not
+        // installed are searched one at a time until a candidate is found
+        Set<File> notInstalled = new LinkedHashSet<File>();
+        Map<File, DebianDependency> installed = searchInstalledPkgs(candidates, notInstalled);
+        for (File candidate : candidates) {
+            DebianDependency pkg = installed.get(candidate);
+            if (pkg == null && notInstalled.contains(candidate)) {
+                pkg = searchPkgNotInstalled(candidate);
+            }
+            if (pkg != null) {
+                return pkg;
+            }
         }
-        return pkg;
+        return null;
+    }
+
+    /**
+     * Returns the locations of the Javadoc for the specified package, by order of preference.
+     */
+    private List<File> getJavaDocCandidates(DebianDependency dependency) {
+        List<File> candidates = new ArrayList<File>();
+        candidates.add(new File("/usr/share/doc/" + dependency.getPackageName() + "/api/index.html"));
+        candidates.add(new File("/usr/share/doc/" + dependency.getPackageName() + "-doc/api/index.html"));
+        candidates.add(new File("/usr/share/doc/" + dependency.getPackageName() + "/apidocs/index.html"));
+        candidates.add(new File("/usr/share/doc/" + dependency.getPackageName() + "-doc/apidocs/index.html"));
+        return candidates;
     }
 
     public DebianDependency searchPkg(File fileToSearch) {
         // lookup the cache first
-        if (filesInPackages.containsKey(fileToSearch)) {
-            return new DebianDependency(filesInPackages.get(fileToSearch));
+        boolean cached = filesInPackages.containsKey(fileToSearch);
+        Trace.cache("packages", cached);
+        if (cached) {
+            return getCachedPkg(fileToSearch);
         }
 
         GetPackageResult packageResult = new GetPackageResult();
 
-        IOUtil.executeProcess(new String[]{"dpkg", "--search", fileToSearch.getAbsolutePath()}, packageResult);
+        if (getDpkgIndex().covers(fileToSearch)) {
+            String owner = getDpkgIndex().getPackage(fileToSearch);
+            if (owner != null) {
+                packageResult.newLine(owner + ": " + fileToSearch.getAbsolutePath());
+            }
+        } else {
+            IOUtil.executeProcess(new String[]{"dpkg", "--search", fileToSearch.getAbsolutePath()}, packageResult);
+        }
         if (!packageResult.getResult().isEmpty()) {
             String pkg = packageResult.getResult().iterator().next();
             filesInPackages.put(fileToSearch, pkg);
             return new DebianDependency(pkg);
         }
 
+        return searchPkgNotInstalled(fileToSearch);
+    }
+
+    /**
+     * Searches the packages containing the specified files. The files which
+     * can't be found in the dpkg file lists are searched with a single dpkg
+     * command for a batch of files, and those not installed are searched
+     * concurrently with apt-file.
+     *
+     * @return the package containing each file in the order specified, or null if not found
+     */
+    public Map<File, DebianDependency> searchPkgs(Collection<File> filesToSearch) {
+        Set<File> notInstalled = new LinkedHashSet<File>();
+        Map<File, DebianDependency> packages = searchInstalledPkgs(filesToSearch, notInstalled);
+
+        // apt-file is slow, the files which can't be found otherwise are searched concurrently
+        Map<File, Future<GetPackageResult>> aptFileSearches = new LinkedHashMap<File, Future<GetPackageResult>>();
+        for (File file : notInstalled) {
+            ContentsIndex contents = getContentsIndex();
+            if ((contents == null || !contents.covers(file)) && canSearchWithAptFile(file)) {
+                aptFileSearches.put(file, IOUtil.executeProcessAsync(new String[]{"apt-file", "search", file.getAbsolutePath()}, new GetPackageResult()));
+            } else {
+                packages.put(file, searchPkgNotInstalled(file));
+            }
+        }
+        for (Map.Entry<File, Future<GetPackageResult>> search : aptFileSearches.entrySet()) {
+            packages.put(search.getKey(), getAptFileResult(search.getKey(), IOUtil.await(search.getValue())));
+        }
+
+        Map<File, DebianDependency> result = new LinkedHashMap<File, DebianDependency>();
+        for (File file : filesToSearch) {
+            result.put(file, packages.get(file));
+        }
+        return result;
+    }
+
+    /**
+     * Searches the installed packages containing the specified files, in the
+     * cache, the dpkg file lists, and with a single dpkg command for a batch
+     * of files.
+     *
+     * @param notInstalled receives the files which aren't installed
+     * @return the package containing the files found, or null for the files
+     *         known from a previous search to belong to no package
+     */
+    private Map<File, DebianDependency> searchInstalledPkgs(Collection<File> filesToSearch, Set<File> notInstalled) {
+        Map<File, DebianDependency> packages = new HashMap<File, DebianDependency>();
+        Set<File> notIndexed = new LinkedHashSet<File>();
+        for (File file : filesToSearch) {
+            boolean cached = filesInPackages.containsKey(file);
+            Trace.cache("packages", cached);
+            if (cached) {
+                packages.put(file, getCachedPkg(file));
+            } else if (getDpkgIndex().covers(file)) {
+                String pkg = getDpkgIndex().getPackage(file);
+                if (pkg != null) {
+                    filesInPackages.put(file, pkg);
+                    packages.put(file, new DebianDependency(pkg));
+                } else {
+                    notInstalled.add(file);
+                }
+            } else {
+                notIndexed.add(file);
+            }
+        }
+
+        List<File> dpkgSearches = new ArrayList<File>(notIndexed);
+        for (int start = 0; start < dpkgSearches.size(); start += MAX_FILES_PER_COMMAND) {
+            List<File> batch = dpkgSearches.subList(start, Math.min(start + MAX_FILES_PER_COMMAND, dpkgSearches.size()));
+            List<String> cmd = new ArrayList<String>();
+            cmd.add("dpkg");
+            cmd.add("--search");
+            for (File file : batch) {
+                cmd.add(file.getAbsolutePath());
+            }
+            DpkgSearchResult packageResult = new DpkgSearchResult();
+            IOUtil.executeProcess(cmd.toArray(new String[cmd.size()]), packageResult);
+
+            for (File file : batch) {
+                String pkg = packageResult.getPackagesAndFiles().get(file.getAbsolutePath());
+                if (pkg != null) {
+                    filesInPackages.put(file, pkg);
+                    packages.put(file, new DebianDependency(pkg));
+                } else {
+                    notInstalled.add(file);
+                }
+            }
+        }
+        return packages;
+    }
+
+    /**
+     * Searches the packages containing the jars of the specified dependencies in /usr/share/java.
+     */
+    public Map<Dependency, DebianDependency> searchPkgsContainingJar(Collection<Dependency> dependencies) {
+        Map<Dependency, File> jars = new LinkedHashMap<Dependency, File>();
+        for (Dependency dependency : dependencies) {
+            jars.put(dependency, new File(SHARED_JARS_DIR, dependency.getArtifactId() + ".jar"));
+        }
+        Map<File, DebianDependency> packages = searchPkgs(jars.values());
+        Map<Dependency, DebianDependency> result = new LinkedHashMap<Dependency, DebianDependency>();
+        for (Map.Entry<Dependency, File> jar : jars.entrySet()) {
+            result.put(jar.getKey(), packages.get(jar.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Searches the package containing a file which isn't installed, in the
+     * index of the Contents files or with apt-file.
+     */
+    private DebianDependency searchPkgNotInstalled(File fileToSearch) {
+        ContentsIndex contents = getContentsIndex();
+        if (contents != null && contents.covers(fileToSearch)) {
+            String pkg = contents.getPackage(fileToSearch);
+            filesInPackages.put(fileToSearch, pkg != null ? pkg : NOT_FOUND);
+            return pkg != null ? new DebianDependency(pkg) : null;
+        }
+
+        if (!canSearchWithAptFile(fileToSearch)) {
+            filesInPackages.put(fileToSearch, NOT_FOUND);
+            return null;
+        }
+        GetPackageResult packageResult = new GetPackageResult();
+        IOUtil.executeProcess(new String[]{"apt-file", "search", fileToSearch.getAbsolutePath()}, packageResult);
+        return getAptFileResult(fileToSearch, packageResult);
+    }
+
+    /**
+     * Tells if apt-file can be used to search the specified file, and explains why not otherwise.
+     */
+    private boolean canSearchWithAptFile(File fileToSearch) {
         // Debian policy prevents the use of apt-file during a build
         if (offline) {
             System.err.println("Offline mode. Give up looking for package containing " + fileToSearch);
-            return null;
+            return false;
         }
 
         if (!new File("/usr/bin/apt-file").exists()) {
             System.err.println("/usr/bin/apt-file not found. Give up looking for package containing " + fileToSearch);
-            return null;
+            return false;
         }
-        IOUtil.executeProcess(new String[]{"apt-file", "search", fileToSearch.getAbsolutePath()}, packageResult);
-        if (!packageResult.getResult().isEmpty()) {
+        return true;
+    }
+
+    private DebianDependency getAptFileResult(File fileToSearch, GetPackageResult packageResult) {
+        if (packageResult != null && !packageResult.getResult().isEmpty()) {
             String pkg = packageResult.getResult().iterator().next();
             filesInPackages.put(fileToSearch, pkg);
             return new DebianDependency(pkg);
         }
-        
+
+        filesInPackages.put(fileToSearch, NOT_FOUND);
         return null;
     }
 
     public String getPackageVersion(DebianDependency pkg, boolean onlyInstalled) {
-        GetPackageVersionResult packageResult = new GetPackageVersionResult();
-        IOUtil.executeProcess(new String[]{"dpkg", "--status", pkg.getPackageName()}, packageResult);
-        if (packageResult.getResult() != null) {
-            return packageResult.getResult();
+        boolean cached = packageVersions.containsKey(pkg.getPackageName());
+        Trace.cache("versions", cached);
+        if (cached) {
+            return packageVersions.get(pkg.getPackageName());
+        }
+        String installedVersion;
+        Future<GetChangelogVersionResult> availableVersion = null;
+        if (getDpkgStatus().isAvailable()) {
+            installedVersion = getDpkgStatus().getVersion(pkg.getPackageName());
+        } else {
+            // ask apt-get in the meantime, in case the package isn't installed
+            if (!onlyInstalled) {
+                availableVersion = searchAvailableVersion(pkg);
+            }
+            GetPackageVersionResult packageResult = new GetPackageVersionResult();
+            IOUtil.executeProcess(new String[]{"dpkg", "--status", pkg.getPackageName()}, packageResult);
+            installedVersion = packageResult.getResult();
+        }
+        if (installedVersion != null) {
+            if (availableVersion != null) {
+                availableVersion.cancel(true);
+            }
+            packageVersions.put(pkg.getPackageName(), installedVersion);
+            return installedVersion;
         }
         if (!onlyInstalled) {
-            GetChangelogVersionResult versionResult = new GetChangelogVersionResult(pkg.getPackageName());
-            IOUtil.executeProcess(new String[]{"apt-get", "--no-act", "--verbose-versions", "install", pkg.getPackageName()}, versionResult);
-            if (versionResult.getResult() != null) {
+            if (availableVersion == null) {
+                availableVersion = searchAvailableVersion(pkg);
+            }
+            GetChangelogVersionResult versionResult = IOUtil.await(availableVersion);
+            if (versionResult != null && versionResult.getResult() != null) {
                 return versionResult.getResult();
             }
         }
         return null;
     }
 
+    private Future<GetChangelogVersionResult> searchAvailableVersion(DebianDependency pkg) {
+        return IOUtil.executeProcessAsync(new String[]{"apt-get", "--no-act", "--verbose-versions", "install", pkg.getPackageName()},
+                new GetChangelogVersionResult(pkg.getPackageName()));
+    }
+
     public List<String> listSharedJars(String library) {
-        if (cacheOfSharedJars.get(library) != null) {
+        boolean cached = cacheOfSharedJars.get(library) != null;
+        Trace.cache("sharedJars", cached);
+        if (cached) {
             return cacheOfSharedJars.get(library);
         }
 
@@ -175,17 +504,84 @@ public class PackageScanner {
         return jars;
     }
 
+    /**
+     * Lists the shared jars of several packages at once, using the dpkg file
+     * lists or a single dpkg command.
+     *
+     * @param libraries the packages, optionally followed by a version constraint
+     * @return the shared jars of each package
+     */
+    public Map<String, List<String>> listSharedJars(Collection<String> libraries) {
+        Map<String, List<String>> jarsByLibrary = new LinkedHashMap<String, List<String>>();
+        Map<String, List<String>> jarsToSearch = new LinkedHashMap<String, List<String>>();
+        for (String library : libraries) {
+            if (library.indexOf("(") > 0) {
+                library = library.substring(0, library.indexOf("(")).trim();
+            }
+            List<String> jars = cacheOfSharedJars.get(library);
+            Trace.cache("sharedJars", jars != null);
+            if (jars == null) {
+                jars = jarsToSearch.get(library);
+                if (jars == null) {
+                    jars = new ArrayList<String>();
+                    jarsToSearch.put(library, jars);
+                }
+            }
+            jarsByLibrary.put(library, jars);
+        }
+        if (jarsToSearch.isEmpty()) {
+            return jarsByLibrary;
+        }
+
+        System.out.println();
+        System.out.println("Looking for shared jars in packages " + jarsToSearch.keySet() + "...");
+        Map<String, String> sharedJars;
+        if (getDpkgIndex().covers(SHARED_JARS_DIR)) {
+            sharedJars = getDpkgIndex().getPackagesAndFiles(SHARED_JARS_DIR.getAbsolutePath() + "/", ".jar");
+        } else {
+            GetPackageContainingPatternResult jarsResult = new GetPackageContainingPatternResult(".jar") {
+                protected String matchFile(String potentialMatch, String candidatePkg) {
+                    // don't log all the jars installed
+                    return potentialMatch.endsWith(".jar") ? potentialMatch : null;
+                }
+            };
+            IOUtil.executeProcess(new String[]{"dpkg", "--search", SHARED_JARS_DIR.getAbsolutePath() + "/*.jar"}, jarsResult);
+            sharedJars = jarsResult.getPackagesAndFiles();
+        }
+        for (Map.Entry<String, String> jar : sharedJars.entrySet()) {
+            List<String> jars = jarsToSearch.get(jar.getValue());
+            if (jars != null) {
+                new SharedJarOutputHandler(jars).newLine(jar.getKey());
+            }
+        }
+        cacheOfSharedJars.putAll(jarsToSearch);
+        return jarsByLibrary;
+    }
+
     public List<DebianDependency> addDocDependencies(Collection<DebianDependency> debianDeps, Map<DebianDependency,
         Dependency> versionedPackagesAndDependencies) {
-        List<DebianDependency> docDeps = new ArrayList<DebianDependency>();
+        Map<DebianDependency, List<File>> docCandidates = new LinkedHashMap<DebianDependency, List<File>>();
+        List<File> docFiles = new ArrayList<File>();
         for (DebianDependency dependency : debianDeps) {
             Dependency runtimeDependency = versionedPackagesAndDependencies.get(dependency);
             if (runtimeDependency != null && runtimeDependency.isPom()) {
                 continue;
             }
-            DebianDependency docPkg = searchJavaDocPkg(dependency);
-            if (docPkg != null) {
-                docDeps.add(docPkg);
+            List<File> candidates = getJavaDocCandidates(dependency);
+            docCandidates.put(dependency, candidates);
+            docFiles.addAll(candidates);
+        }
+
+        Map<File, DebianDependency> docPackages = searchPkgs(docFiles);
+
+        List<DebianDependency> docDeps = new ArrayList<DebianDependency>();
+        for (List<File> candidates : docCandidates.values()) {
+            for (File candidate : candidates) {
+                DebianDependency docPkg = docPackages.get(candidate);
+                if (docPkg != null) {
+                    docDeps.add(docPkg);
+                    break;
+                }
             }
         }
         return docDeps;
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Detects the licenses declared in the headers of the source files, in
+ * the same spirit as licensecheck. The files are read concurrently, and only
+ * the beginning of each file is examined.
+ * <p>
+ * The licenses are reported with the names used by licensecheck, for example
+ * "Apache (v2.0)" or "BSD (3 clause)".
+ * <p>
+ * The licenses detected can be saved in a cache file, indexed by the hash of
+ * the beginning of the files. The next scans only examine the files whose
+ * beginning changed, even if they were moved or touched.
+ */
+public class SourceLicenseDetector {
+
+    /** Size of the beginning of the files searched for a license */
+    static final int HEADER_SIZE = 16 * 1024;
+
+    /** The directories not scanned by default */
+    private static final Set<String> IGNORED_DIRECTORIES = new HashSet<String>(Arrays.asList("target", ".git", ".svn", ".hg", ".bzr", ".mh"));
+
+    /** Number of characters after the name of a license in which the version is searched */
+    private static final int VERSION_WINDOW = 200;
+
+    /** Version of the cache format, to be increased when the detection changes */
+    private static final String CACHE_VERSION = "1";
+
+    private final File cacheFile;
+
+    public SourceLicenseDetector() {
+        this(null);
+    }
+
+    /**
+     * @param cacheFile the file caching the licenses detected, or null to disable the cache
+     */
+    public SourceLicenseDetector(File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Scans the files in the specified directory and its subdirectories.
+     *
+     * @return the licenses found
+     */
+    public Set<String> scan(File baseDir) {
+        List<File> files = new ArrayList<File>();
+        listFiles(baseDir, files);
+        final Map<String, String> cache = loadCache();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<String[]>> results = new ArrayList<Future<String[]>>();
+            for (final File file : files) {
+                results.add(executor.submit(new Callable<String[]>() {
+                    public String[] call() throws IOException {
+                        byte[] header = readHeader(file);
+                        String hash = hash(header);
+                        String license = cache.get(hash);
+                        if (license == null) {
+                            license = detectLicense(header);
+                        }
+                        return new String[] {hash, license != null ? license : ""};
+                    }
+                }));
+            }
+
+            Set<String> licenses = new TreeSet<String>();
+            Map<String, String> detected = new HashMap<String, String>();
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    String[] result = results.get(i).get();
+                    detected.put(result[0], result[1]);
+                    if (result[1].length() > 0) {
+                        licenses.add(result[1]);
+                    }
+                } catch (ExecutionException e) {
+                    System.err.println("Cannot read " + files.get(i) + ": " + e.getCause().getMessage());
+                }
+            }
+            saveCache(detected);
+            return licenses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TreeSet<String>();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, String> loadCache() {
+        Map<String, String> cache = new HashMap<String, String>();
+        if (cacheFile == null || !cacheFile.exists()) {
+            return cache;
+        }
+        Properties properties = new Properties();
+        try {
+            InputStream in = new FileInputStream(cacheFile);
+            try {
+                properties.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot read the license cache " + cacheFile + ": " + e.getMessage());
+            return cache;
+        }
+        if (CACHE_VERSION.equals(properties.getProperty("version"))) {
+            for (String hash : properties.stringPropertyNames()) {
+                cache.put(hash, properties.getProperty(hash));
+            }
+            cache.remove("version");
+        }
+        return cache;
+    }
+
+    /**
+     * Saves the licenses detected during the last scan, the files which
+     * disappeared since the previous scan are forgotten.
+     */
+    private void saveCache(Map<String, String> detected) {
+        if (cacheFile == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.putAll(detected);
+        properties.setProperty("version", CACHE_VERSION);
+        try {
+            cacheFile.getAbsoluteFile().getParentFile().mkdirs();
+            OutputStream out = new FileOutputStream(cacheFile);
+            try {
+                properties.store(out, "Licenses detected in the sources by maven-debian-helper");
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot write the license cache " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-1").digest(data)) {
+                hash.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Lists the files in the directory and its subdirectories. The symbolic links are
+     * ignored like with <tt>find -type f</tt>, they may point outside of the sources
+     * or create a cycle.
+     */
+    private void listFiles(File dir, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (isSymlink(child)) {
+                continue;
+            }
+            if (child.isDirectory()) {
+                if (!IGNORED_DIRECTORIES.contains(child.getName())) {
+                    listFiles(child, files);
+                }
+            } else if (child.isFile() && (cacheFile == null || !child.getName().equals(cacheFile.getName()))) {
+                files.add(child);
+            }
+        }
+    }
+
+    static boolean isSymlink(File file) {
+        try {
+            File parent = file.getParentFile();
+            File resolvedParent = parent != null ? new File(parent.getCanonicalFile(), file.getName()) : file;
+            return !resolvedParent.getCanonicalFile().equals(resolvedParent.getAbsoluteFile());
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Returns the license declared at the beginning of the file, or null if
+     * not found or if the file is binary.
+     */
+    String detectLicense(File file) throws IOException {
+        return detectLicense(readHeader(file));
+    }
+
+    private byte[] readHeader(File file) throws IOException {
+        byte[] header = new byte[(int) Math.min(HEADER_SIZE, file.length())];
+        InputStream in = new FileInputStream(file);
+        try {
+            int length = 0;
+            int read;
+            while (length < header.length && (read = in.read(header, length, header.length - length)) > 0) {
+                length += read;
+            }
+            return length < header.length ? Arrays.copyOf(header, length) : header;
+        } finally {
+            in.close();
+        }
+    }
+
+    private String detectLicense(byte[] header) {
+        char[] text = new char[header.length];
+        boolean space = false;
+        int length = 0;
+        for (byte b : header) {
+            if (b == 0) {
+                // binary file
+                return null;
+            }
+            char c = Character.toLowerCase((char) (b & 0xff));
+            // keep only the words, the versions and the urls, to ignore the comment markers and the line breaks
+            if (Character.isLetterOrDigit(c) || c == '.' || c == '/' || c == '-') {
+                text[length++] = c;
+                space = false;
+            } else if (!space) {
+                text[length++] = ' ';
+                space = true;
+            }
+        }
+        return detectLicense(new String(text, 0, length));
+    }
+
+    /**
+     * Returns the license found in the normalized text specified (lower case,
+     * without punctuation and with a single space between the words).
+     */
+    String detectLicense(String text) {
+        int index;
+        if ((index = indexOf(text, "apache license", "apache software license")) >= 0) {
+            String version = findVersion(text, index, "2.0", "1.1", "1.0");
+            if (version == null && text.contains("licenses/license-2.0")) {
+                version = "2.0";
+            }
+            return "Apache" + (version != null ? " (v" + version + ")" : "");
+        }
+        if ((index = indexOf(text, "gnu affero general public license")) >= 0) {
+            return "AGPL" + getGplVersion(text, index, "3");
+        }
+        if ((index = indexOf(text, "gnu lesser general public license", "gnu library general public license")) >= 0) {
+            return "LGPL" + getGplVersion(text, index, "2.1", "3", "2");
+        }
+        if ((index = indexOf(text, "gnu general public license")) >= 0) {
+            String license = "GPL" + getGplVersion(text, index, "2", "3");
+            if (text.contains("classpath exception")) {
+                license += " with Classpath exception";
+            }
+            return license;
+        }
+        if ((index = indexOf(text, "eclipse public license")) >= 0) {
+            String version = findVersion(text, index, "1.0", "2.0");
+            return "EPL" + (version != null ? " (v" + version + ")" : "");
+        }
+        if ((index = indexOf(text, "mozilla public license")) >= 0) {
+            String version = findVersion(text, index, "1.1", "2.0", "1.0");
+            return "MPL" + (version != null ? " (v" + version + ")" : "");
+        }
+        if (indexOf(text, "common development and distribution license") >= 0) {
+            return "CDDL";
+        }
+        if (indexOf(text, "common public license") >= 0) {
+            return "CPL";
+        }
+        if (indexOf(text, "artistic license") >= 0) {
+            return "Artistic License";
+        }
+        if (indexOf(text, "redistribution and use in source and binary forms") >= 0) {
+            if (text.contains("all advertising materials")) {
+                return "BSD (4 clause)";
+            } else if (text.contains("neither the name")) {
+                return "BSD (3 clause)";
+            } else {
+                return "BSD (2 clause)";
+            }
+        }
+        if (indexOf(text, "permission is hereby granted free of charge to any person obtaining a copy") >= 0) {
+            return "MIT License";
+        }
+        if (indexOf(text, "permission to use copy modify and/or distribute this software for any purpose") >= 0) {
+            return "ISC";
+        }
+        if (indexOf(text, "public domain") >= 0) {
+            return "Public domain";
+        }
+        return null;
+    }
+
+    private int indexOf(String text, String... patterns) {
+        for (String pattern : patterns) {
+            int index = text.indexOf(pattern);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Searches the first of the versions specified in the text following the name of a license.
+     */
+    private String findVersion(String text, int index, String... versions) {
+        String window = text.substring(index, Math.min(text.length(), index + VERSION_WINDOW));
+        for (String version : versions) {
+            if (window.contains("version " + version) || window.contains(" v" + version)
+                    || window.contains("license " + version) || window.contains("license-" + version)) {
+                return version;
+            }
+        }
+        return null;
+    }
+
+    private String getGplVersion(String text, int index, String... versions) {
+        String version = findVersion(text, index, versions);
+        if (version == null) {
+            return "";
+        }
+        boolean later = text.indexOf("any later version", index) >= 0 || text.indexOf("or later", index) >= 0;
+        return " (v" + version + (later ? " or later" : "") + ")";
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records where the time is spent when solving the dependencies: the duration
+ * of the phases, of the resolution of each dependency and of the external
+ * commands, and the number of cache hits and misses. The events are saved in
+ * the Chrome trace format (chrome://tracing), the counters are saved as
+ * a counter event at the end of the trace.
+ *
+ * Nothing is recorded unless the trace has been started, the methods then
+ * return immediately.
+ */
+public class Trace {
+
+    private static volatile Trace trace;
+
+    private final File file;
+    private final long origin = System.nanoTime();
+    private final List<String> events = new ArrayList<String>();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+
+    private Trace(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Starts recording the events, they are written to the file specified by {@link #save()}.
+     */
+    public static void start(File file) {
+        trace = new Trace(file);
+    }
+
+    /**
+     * Tells if the events are recorded. The names of the events which aren't
+     * constant should only be built when this returns true.
+     */
+    public static boolean isEnabled() {
+        return trace != null;
+    }
+
+    /**
+     * Returns the start time of an event, to be passed to {@link #event(String, String, long)}.
+     */
+    public static long now() {
+        return trace != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records an event started at the specified time and ending now.
+     *
+     * @param category the category of the event (phase, dependency, subprocess...)
+     * @param name     the name of the event
+     * @param start    the start time returned by {@link #now()}
+     */
+    public static void event(String category, String name, long start) {
+        Trace t = trace;
+        if (t != null) {
+            t.add(category, name, start, System.nanoTime());
+        }
+    }
+
+    /**
+     * Increments a counter.
+     */
+    public static void count(String counter) {
+        Trace t = trace;
+        if (t != null) {
+            AtomicLong value = t.counters.get(counter);
+            if (value == null) {
+                synchronized (t.counters) {
+                    value = t.counters.get(counter);
+                    if (value == null) {
+                        value = new AtomicLong();
+                        t.counters.put(counter, value);
+                    }
+                }
+            }
+            value.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the current value of a counter, or 0 if the trace isn't enabled.
+     */
+    static long getCount(String counter) {
+        Trace t = trace;
+        AtomicLong value = t != null ? t.counters.get(counter) : null;
+        return value != null ? value.get() : 0;
+    }
+
+    /**
+     * Counts a hit or a miss of the specified cache.
+     */
+    public static void cache(String cache, boolean hit) {
+        if (trace != null) {
+            count(cache + (hit ? ".hit" : ".miss"));
+        }
+    }
+
+    /**
+     * Writes the events recorded and stops the trace.
+     */
+    public static void save() {
+        Trace t = trace;
+        trace = null;
+        if (t == null) {
+            return;
+        }
+        try {
+            t.write();
+        } catch (IOException e) {
+            System.err.println("Unable to write the trace " + t.file + ": " + e.getMessage());
+        }
+    }
+
+    private void add(String category, String name, long start, long end) {
+        StringBuilder event = new StringBuilder();
+        event.append("{\"name\":").append(quote(name));
+        event.append(",\"cat\":").append(quote(category));
+        event.append(",\"ph\":\"X\"");
+        event.append(",\"ts\":").append(micros(start));
+        event.append(",\"dur\":").append((end - start) / 1000);
+        event.append(",\"pid\":1,\"tid\":").append(Thread.currentThread().getId());
+        event.append("}");
+        synchronized (events) {
+            events.add(event.toString());
+        }
+    }
+
+    private long micros(long time) {
+        return (time - origin) / 1000;
+    }
+
+    private void write() throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            out.write("{\"traceEvents\":[\n");
+            synchronized (events) {
+                for (String event : events) {
+                    out.write(event);
+                    out.write(",\n");
+                }
+            }
+            out.write("{\"name\":\"counters\",\"ph\":\"C\",\"ts\":" + micros(System.nanoTime()) + ",\"pid\":1,\"args\":{");
+            boolean first = true;
+            for (Map.Entry<String, AtomicLong> counter : new TreeMap<String, AtomicLong>(counters).entrySet()) {
+                if (!first) {
+                    out.write(",");
+                }
+                out.write(quote(counter.getKey()) + ":" + counter.getValue().get());
+                first = false;
+            }
+            out.write("}}\n],\"displayTimeUnit\":\"ms\"}\n");
+        } finally {
+            out.close();
+        }
+    }
+
+    static String quote(String s) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < ' ') {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
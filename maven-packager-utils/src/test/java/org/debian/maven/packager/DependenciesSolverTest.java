@@ -91,6 +91,52 @@ public class DependenciesSolverTest extends TestCase {
         assertFileEquals("libplexus-active-collections-java.rules", "maven.rules");
     }
 
+    public void testSkipTheResolutionWhenTheInputsHaveNotChanged() throws Exception {
+        useFile("plexus-active-collections/pom.xml", pomFile);
+        DependenciesSolver solver = new DependenciesSolver(testDir, new PackageScanner(true), false);
+        solver.mavenRepo = getFileInClasspath("repository/root.dir").getParentFile();
+        solver.exploreProjects = true;
+        solver.packageName = "libplexus-active-collections-java";
+        solver.packageType = "maven";
+        solver.setBaseDir(testDir);
+        solver.setListOfPoms(new File(testDir, "libplexus-active-collections-java.poms"));
+        assertFalse(solver.isUpToDate(true));
+
+        solver.solveDependencies();
+
+        assertTrue("Did not expect any issues", solver.issues.isEmpty());
+
+        solver.pomTransformer.getListOfPOMs().save();
+        solver.pomTransformer.getRulesFiles().save(testDir, RULES);
+        solver.saveSubstvars();
+        solver.saveFingerprint(true);
+
+        assertTrue(solver.isUpToDate(true));
+        assertFalse("The fingerprint depends on the options", solver.isUpToDate(false));
+
+        // mh_resolve_dependencies renames the variables after each run
+        File substvars = new File(testDir, "libplexus-active-collections-java.substvars");
+        FileUtils.writeStringToFile(substvars, FileUtils.readFileToString(substvars).replaceAll("(?m)^maven\\.", "maven:"));
+        assertTrue(solver.isUpToDate(true));
+
+        FileUtils.writeStringToFile(new File(testDir, "maven.rules"), "junit junit jar s/3\\..*/3.x/\n", true);
+        assertFalse(solver.isUpToDate(true));
+    }
+
+    public void testHasSubstvars() throws Exception {
+        File substvars = new File(testDir, "libfoo-java.substvars");
+        assertFalse(DependenciesSolver.hasSubstvars(substvars));
+
+        FileUtils.writeStringToFile(substvars, "maven.CompileDepends=junit\nmaven.Depends=libbar-java\n");
+        assertTrue(DependenciesSolver.hasSubstvars(substvars));
+
+        FileUtils.writeStringToFile(substvars, "maven:CompileDepends=junit\nmaven:Depends=libbar-java\n");
+        assertTrue(DependenciesSolver.hasSubstvars(substvars));
+
+        FileUtils.writeStringToFile(substvars, "maven:CompileDepends=junit\nmisc:Depends=libbar-java\n");
+        assertFalse(DependenciesSolver.hasSubstvars(substvars));
+    }
+
     /**
      * Test of solveDependencies method, of class DependenciesSolver.
      */
@@ -122,6 +168,50 @@ public class DependenciesSolverTest extends TestCase {
         assertFileEquals("libplexus-utils2-java.rules", "maven.rules");
     }
 
+    /**
+     * The repository loaded from a snapshot resolves the dependencies like the scanned repository.
+     */
+    public void testSolveWithRepositorySnapshot() throws Exception {
+        File snapshot = new File(testDir, ".mh/repository.snapshot");
+        File repository = getFileInClasspath("repository/root.dir").getParentFile();
+
+        // the first run scans the repository and saves the snapshot, the second run loads it
+        for (int run = 0; run < 2; run++) {
+            // only the snapshot is kept from the previous run
+            new File(testDir, "libplexus-utils2-java.poms").delete();
+            new File(testDir, "libplexus-utils2-java.substvars").delete();
+            new File(testDir, "maven.rules").delete();
+            useFile("plexus-utils2/pom.xml", pomFile);
+            DependenciesSolver solver = new DependenciesSolver(testDir, new PackageScanner(true), false);
+            solver.mavenRepo = repository;
+            solver.repositorySnapshot = snapshot;
+            solver.exploreProjects = true;
+            solver.packageName = "libplexus-utils2-java";
+            solver.packageType = "maven";
+            solver.pomTransformer.getRulesFiles().get(IGNORE).add(new DependencyRule("org.apache.maven.plugins maven-release-plugin * *"));
+            File listOfPoms = getFileInClasspath("libplexus-utils2-java.poms");
+            solver.setBaseDir(getFileInClasspath("plexus-utils2/pom.xml").getParentFile());
+            solver.setListOfPoms(new File(listOfPoms.getParent(), listOfPoms.getName()));
+
+            solver.solveDependencies();
+
+            assertTrue("Did not expect any issues", solver.issues.isEmpty());
+            assertNotNull(RepositorySnapshot.load(snapshot, RepositorySnapshot.getKey(repository)));
+
+            solver.setBaseDir(testDir);
+            solver.setListOfPoms(new File(testDir, "libplexus-utils2-java.poms"));
+
+            solver.pomTransformer.getListOfPOMs().save();
+            solver.pomTransformer.getRulesFiles().save(testDir, RULES);
+            solver.saveSubstvars();
+
+            // the same results as testSolvePlexusUtils2Dependencies with Repository.scan()
+            assertFileEquals("libplexus-utils2-java.poms", "libplexus-utils2-java.poms");
+            assertFileEquals("libplexus-utils2-java.substvars", "libplexus-utils2-java.substvars");
+            assertFileEquals("libplexus-utils2-java.rules", "maven.rules");
+        }
+    }
+
     /**
      * Test of solveDependencies method, of class DependenciesSolver.
      */
@@ -252,6 +342,58 @@ public class DependenciesSolverTest extends TestCase {
         assertFileEquals("buildhelper-maven-plugin.rules", "maven.rules");
     }
 
+    /**
+     * The concurrent resolution of the modules gives the same results as the
+     * serial resolution of the interactive mode.
+     */
+    public void testConcurrentResolutionMatchesSerialResolution() throws Exception {
+        File serial = new File(testDir, "serial");
+        File concurrent = new File(testDir, "concurrent");
+        solveOpenMRSDependencies(serial, false);
+        solveOpenMRSDependencies(concurrent, true);
+
+        for (String fileName : new String[] {"openmrs.substvars", "maven.rules", "openmrs.poms"}) {
+            assertEquals(fileName, readWithoutComments(new File(serial, fileName)), readWithoutComments(new File(concurrent, fileName)));
+        }
+    }
+
+    private void solveOpenMRSDependencies(File outputDirectory, boolean resolveConcurrently) throws Exception {
+        outputDirectory.mkdirs();
+        DependenciesSolver solver = new DependenciesSolver(outputDirectory, new PackageScanner(true), false);
+        solver.resolveConcurrently = resolveConcurrently;
+        solver.mavenRepo = getFileInClasspath("repository/root.dir").getParentFile();
+        solver.exploreProjects = false;
+        solver.packageName = "openmrs";
+        solver.packageType = "maven";
+        solver.pomTransformer.getRulesFiles().get(IGNORE).add(new DependencyRule("org.openmrs.codehaus.mojo buildnumber-maven-plugin * *"));
+        solver.pomTransformer.getRulesFiles().get(IGNORE).add(new DependencyRule("org.codehaus.mojo build-helper-maven-plugin * *"));
+        solver.pomTransformer.getRulesFiles().get(IGNORE).add(new DependencyRule("org.apache.maven.plugins maven-assembly-plugin * *"));
+        File listOfPoms = getFileInClasspath("openmrs.poms");
+        solver.setBaseDir(getFileInClasspath("openmrs/pom.xml").getParentFile());
+        solver.setListOfPoms(new File(listOfPoms.getParent(), listOfPoms.getName()));
+
+        solver.solveDependencies();
+
+        assertTrue("Did not expect any issues", solver.issues.isEmpty());
+
+        solver.setBaseDir(outputDirectory);
+        solver.setListOfPoms(new File(outputDirectory, "openmrs.poms"));
+
+        solver.pomTransformer.getListOfPOMs().save();
+        solver.pomTransformer.getRulesFiles().save(outputDirectory, RULES);
+        solver.saveSubstvars();
+    }
+
+    private String readWithoutComments(File file) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (String line : FileUtils.readLines(file)) {
+            if (!line.startsWith("#")) {
+                content.append(line).append('\n');
+            }
+        }
+        return content.toString();
+    }
+
     public void testSolvePlexusCompilerDependencies() throws Exception {
         useFile("plexus-compiler/pom.xml", pomFile);
         DependenciesSolver solver = new DependenciesSolver(testDir, new PackageScanner(true), false);
@@ -0,0 +1,38 @@
+package org.debian.maven.packager;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.debian.maven.repo.Dependency;
+import org.junit.Test;
+
+public class DependencyIndexTest {
+
+    @Test
+    public void testContainsIgnoreVersion() {
+        DependencyIndex index = new DependencyIndex();
+        index.add(new Dependency("junit", "junit", "jar", "4.11"));
+
+        assertTrue(index.containsIgnoreVersion(new Dependency("junit", "junit", "jar", "4.11")));
+        assertTrue(index.containsIgnoreVersion(new Dependency("junit", "junit", "jar", "3.8.2")));
+        assertTrue(index.containsIgnoreVersion(new Dependency("junit", "junit", "jar", null)));
+        assertFalse(index.containsIgnoreVersion(new Dependency("junit", "junit-dep", "jar", "4.11")));
+        assertFalse(index.containsIgnoreVersion(new Dependency("org.junit", "junit", "jar", "4.11")));
+    }
+
+    @Test
+    public void testSameArtifactWithDifferentTypes() {
+        DependencyIndex index = new DependencyIndex();
+        index.addAll(Arrays.asList(new Dependency("org.foo", "foo", "jar", "1.0"), new Dependency("org.foo", "foo", "test-jar", "1.0")));
+
+        assertTrue(index.containsIgnoreVersion(new Dependency("org.foo", "foo", "jar", "2.0")));
+        assertTrue(index.containsIgnoreVersion(new Dependency("org.foo", "foo", "test-jar", "2.0")));
+        assertFalse(index.containsIgnoreVersion(new Dependency("org.foo", "foo", "pom", "1.0")));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        assertFalse(new DependencyIndex().containsIgnoreVersion(new Dependency("junit", "junit", "jar", "4.11")));
+    }
+}
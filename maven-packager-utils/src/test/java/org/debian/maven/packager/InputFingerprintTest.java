@@ -0,0 +1,82 @@
+package org.debian.maven.packager;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InputFingerprintTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = new File("target/test-fingerprint");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+    }
+
+    private String fingerprint(File... files) throws IOException {
+        InputFingerprint fingerprint = new InputFingerprint();
+        fingerprint.add("libfoo-java");
+        for (File file : files) {
+            fingerprint.addFile(file);
+        }
+        return fingerprint.getValue();
+    }
+
+    @Test
+    public void testFileContent() throws IOException {
+        File pom = new File(dir, "pom.xml");
+        File rules = new File(dir, "maven.rules");
+        FileUtils.writeStringToFile(pom, "<project/>");
+
+        String value = fingerprint(pom, rules);
+        assertEquals(40, value.length());
+        assertEquals(value, fingerprint(pom, rules));
+
+        FileUtils.writeStringToFile(rules, "junit junit jar s/3\\..*/3.x/");
+        assertFalse(value.equals(fingerprint(pom, rules)));
+
+        String withRules = fingerprint(pom, rules);
+        FileUtils.writeStringToFile(pom, "<project></project>");
+        assertFalse(withRules.equals(fingerprint(pom, rules)));
+    }
+
+    @Test
+    public void testDirectoryTree() throws IOException {
+        File repository = new File(dir, "repository");
+        new File(repository, "org/foo").mkdirs();
+
+        InputFingerprint fingerprint = new InputFingerprint();
+        fingerprint.addDirectoryTree(repository);
+        String value = fingerprint.getValue();
+
+        File bar = new File(repository, "org/bar");
+        bar.mkdirs();
+        bar.setLastModified(1000000000000L);
+        fingerprint = new InputFingerprint();
+        fingerprint.addDirectoryTree(repository);
+        assertFalse(value.equals(fingerprint.getValue()));
+    }
+
+    @Test
+    public void testSaveAndMatch() throws IOException {
+        File file = new File(dir, ".mh/libfoo-java.fingerprint");
+
+        InputFingerprint fingerprint = new InputFingerprint();
+        fingerprint.add("libfoo-java");
+        assertFalse(fingerprint.matches(file));
+
+        fingerprint.save(file);
+        assertTrue(fingerprint.matches(file));
+
+        InputFingerprint other = new InputFingerprint();
+        other.add("libbar-java");
+        assertFalse(other.matches(file));
+    }
+}
@@ -0,0 +1,100 @@
+package org.debian.maven.packager;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RepositoryMonitorTest {
+
+    private File repository = new File("target/monitored-repository");
+    private File pom;
+
+    @Before
+    public void setUp() throws Exception {
+        FileUtils.deleteDirectory(repository);
+        pom = createPom("org/foo/foo/1.0/foo-1.0.pom");
+        createPom("org/foo/foo/debian/foo-debian.pom");
+        setOld(repository);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(repository);
+    }
+
+    private File createPom(String path) throws IOException {
+        File pom = new File(repository, path);
+        pom.getParentFile().mkdirs();
+        FileUtils.writeStringToFile(pom, "<project/>");
+        return pom;
+    }
+
+    /**
+     * Moves the modification time of the files in the past, as if they were installed earlier.
+     */
+    private void setOld(File file) {
+        file.setLastModified(System.currentTimeMillis() - 60000);
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                setOld(child);
+            }
+        }
+    }
+
+    @Test
+    public void testNoChange() throws Exception {
+        RepositoryMonitor monitor = new RepositoryMonitor(repository);
+        assertEquals(Collections.emptyList(), monitor.getAddedPoms());
+    }
+
+    @Test
+    public void testAddedPoms() throws Exception {
+        RepositoryMonitor monitor = new RepositoryMonitor(repository);
+        File newVersion = createPom("org/foo/foo/2.0/foo-2.0.pom");
+        File newArtifact = createPom("org/bar/bar/1.0/bar-1.0.pom");
+
+        List<File> added = monitor.getAddedPoms();
+        assertEquals(2, added.size());
+        assertEquals(new HashSet<File>(Arrays.asList(newVersion, newArtifact)), new HashSet<File>(added));
+
+        // the POMs are reported only once
+        assertEquals(Collections.emptyList(), monitor.getAddedPoms());
+    }
+
+    @Test
+    public void testPomAddedInUnchangedTree() throws Exception {
+        RepositoryMonitor monitor = new RepositoryMonitor(repository);
+        assertEquals(Collections.emptyList(), monitor.getAddedPoms());
+
+        // only the version directory is modified, its parents are taken from the previous update
+        File newPom = createPom("org/foo/foo/debian/foo-debian-tests.pom");
+        assertEquals(Collections.singletonList(newPom), monitor.getAddedPoms());
+    }
+
+    @Test
+    public void testRemovedPom() throws Exception {
+        RepositoryMonitor monitor = new RepositoryMonitor(repository);
+        assertTrue(pom.delete());
+
+        assertNull(monitor.getAddedPoms());
+    }
+
+    @Test
+    public void testRemovedDirectory() throws Exception {
+        RepositoryMonitor monitor = new RepositoryMonitor(repository);
+        FileUtils.deleteDirectory(pom.getParentFile());
+
+        assertNull(monitor.getAddedPoms());
+    }
+}
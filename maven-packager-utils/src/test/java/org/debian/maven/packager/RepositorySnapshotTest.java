@@ -0,0 +1,119 @@
+package org.debian.maven.packager;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.debian.maven.repo.Dependency;
+import org.debian.maven.repo.POMInfo;
+import org.debian.maven.repo.POMInfo.DependencyType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RepositorySnapshotTest {
+
+    private File testDir = new File("target/tmp-snapshot");
+    private File snapshotFile = new File(testDir, "repository.snapshot");
+
+    @Before
+    public void setUp() throws Exception {
+        FileUtils.deleteDirectory(testDir);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(testDir);
+    }
+
+    private POMInfo createPom(Dependency thisPom, Dependency parent) {
+        POMInfo pom = new POMInfo();
+        pom.setThisPom(thisPom);
+        pom.setParent(parent);
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("debian.package", "lib" + thisPom.getArtifactId() + "-java");
+        pom.setProperties(properties);
+        pom.setModules(new ArrayList<String>());
+        Map<DependencyType, List<Dependency>> dependencies = new EnumMap<DependencyType, List<Dependency>>(DependencyType.class);
+        dependencies.put(DependencyType.DEPENDENCIES, Arrays.asList(
+                new Dependency("junit", "junit", "jar", "3.x", "test", false, null, null),
+                new Dependency("org.foo", "foo-api", "jar", "1.x", null, true, "tests", null)));
+        pom.setDependencies(dependencies);
+        return pom;
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        Dependency parent = new Dependency("org.foo", "foo-parent", "pom", "1.x");
+        RepositorySnapshot snapshot = new RepositorySnapshot();
+        snapshot.add(new File("/usr/share/maven-repo/org/foo/foo/1.x/foo-1.x.pom"), createPom(new Dependency("org.foo", "foo", "jar", "1.x"), parent));
+        snapshot.add(new File("/usr/share/maven-repo/org/foo/foo-parent/1.x/foo-parent-1.x.pom"), createPom(parent, null));
+        snapshot.save(snapshotFile, "key");
+
+        RepositorySnapshot loaded = RepositorySnapshot.load(snapshotFile, "key");
+        assertNotNull(loaded);
+        assertEquals(2, loaded.size());
+
+        // the parent POMs come first
+        List<Map.Entry<File, POMInfo>> poms = loaded.getPoms();
+        assertEquals(new File("/usr/share/maven-repo/org/foo/foo-parent/1.x/foo-parent-1.x.pom"), poms.get(0).getKey());
+        assertNull(poms.get(0).getValue().getParent());
+
+        POMInfo pom = poms.get(1).getValue();
+        assertEquals(new Dependency("org.foo", "foo", "jar", "1.x"), pom.getThisPom());
+        assertEquals(parent, pom.getParent());
+        assertEquals("libfoo-java", pom.getProperties().get("debian.package"));
+        assertTrue(pom.getModules().isEmpty());
+
+        List<Dependency> dependencies = pom.getDependencies().get(DependencyType.DEPENDENCIES);
+        assertEquals(2, dependencies.size());
+        assertEquals("test", dependencies.get(0).getScope());
+        assertFalse(dependencies.get(0).isOptional());
+        assertTrue(dependencies.get(1).isOptional());
+        assertEquals("tests", dependencies.get(1).getClassifier());
+        assertNull(dependencies.get(1).getScope());
+
+        // the strings are shared by the POMs
+        assertSame(pom.getThisPom().getGroupId(), poms.get(0).getValue().getThisPom().getGroupId());
+    }
+
+    @Test
+    public void testOutOfDateSnapshot() throws Exception {
+        new RepositorySnapshot().save(snapshotFile, "key");
+
+        assertNotNull(RepositorySnapshot.load(snapshotFile, "key"));
+        assertNull(RepositorySnapshot.load(snapshotFile, "other key"));
+        assertNull(RepositorySnapshot.load(new File(testDir, "missing.snapshot"), "key"));
+    }
+
+    @Test
+    public void testTruncatedSnapshot() throws Exception {
+        RepositorySnapshot snapshot = new RepositorySnapshot();
+        snapshot.add(new File("foo.pom"), createPom(new Dependency("org.foo", "foo", "jar", "1.x"), null));
+        snapshot.save(snapshotFile, "key");
+        byte[] content = FileUtils.readFileToByteArray(snapshotFile);
+        FileUtils.writeByteArrayToFile(snapshotFile, Arrays.copyOf(content, content.length - 10));
+
+        assertNull(RepositorySnapshot.load(snapshotFile, "key"));
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        File repository = new File(testDir, "repository");
+        new File(repository, "org/foo/foo/1.0").mkdirs();
+        String key = RepositorySnapshot.getKey(repository);
+        assertEquals(key, RepositorySnapshot.getKey(repository));
+
+        File newVersion = new File(repository, "org/foo/foo/2.0");
+        newVersion.mkdirs();
+        newVersion.getParentFile().setLastModified(1000000000000L);
+        assertFalse(key.equals(RepositorySnapshot.getKey(repository)));
+    }
+}
@@ -0,0 +1,81 @@
+package org.debian.maven.packager;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.debian.maven.repo.Dependency;
+import org.debian.maven.repo.DependencyRule;
+import org.junit.Test;
+
+public class RuleIndexTest {
+
+    private final DependencyRule junitRule = new DependencyRule("junit junit jar s/3\\..*/3.x/");
+    private final DependencyRule fooRule = new DependencyRule("org.foo * * s/.*/debian/");
+    private final DependencyRule barRule = new DependencyRule("org.bar bar jar s/.*/debian/");
+
+    @Test
+    public void testFindMatchingRules() {
+        RuleIndex index = new RuleIndex();
+        index.addAll(Arrays.asList(junitRule, fooRule, barRule));
+
+        assertEquals(Collections.singleton(junitRule), index.findMatchingRules(new Dependency("junit", "junit", "jar", "3.8.2")));
+        assertEquals(Collections.singleton(fooRule), index.findMatchingRules(new Dependency("org.foo", "foo-core", "jar", "1.0")));
+        assertEquals(Collections.singleton(barRule), index.findMatchingRules(new Dependency("org.bar", "bar", "jar", "2.0")));
+        assertTrue(index.findMatchingRules(new Dependency("junit", "junit", "jar", "4.11")).isEmpty());
+        assertTrue(index.findMatchingRules(new Dependency("org.bar", "bar-api", "jar", "2.0")).isEmpty());
+    }
+
+    @Test
+    public void testDotsMatchAnyCharacter() {
+        // the dots of the rules are regular expressions, the index finds the same rules as a linear scan
+        List<DependencyRule> rules = Arrays.asList(barRule, new DependencyRule("org.baz baz.core jar s/.*/debian/"));
+        RuleIndex index = new RuleIndex();
+        index.addAll(rules);
+
+        for (Dependency dependency : Arrays.asList(new Dependency("orgXbar", "bar", "jar", "2.0"),
+                new Dependency("org.baz", "baz.core", "jar", "1.0"), new Dependency("org.baz", "baz-core", "jar", "1.0"))) {
+            Set<DependencyRule> matchingRules = new TreeSet<DependencyRule>();
+            for (DependencyRule rule : rules) {
+                if (rule.matches(dependency)) {
+                    matchingRules.add(rule);
+                }
+            }
+            assertEquals(dependency.toString(), matchingRules, index.findMatchingRules(dependency));
+        }
+    }
+
+    @Test
+    public void testIndexes() {
+        RuleIndex index = new RuleIndex();
+        index.addAll(Arrays.asList(junitRule, fooRule));
+
+        assertTrue(index.indexes(Arrays.asList(fooRule, junitRule)));
+        assertFalse(index.indexes(Arrays.asList(junitRule, barRule)));
+        assertFalse(index.indexes(Arrays.asList(junitRule)));
+    }
+
+    @Test
+    public void testDuplicateRules() {
+        RuleIndex index = new RuleIndex();
+        assertTrue(index.add(junitRule));
+        assertFalse(index.add(new DependencyRule("junit junit jar s/3\\..*/3.x/")));
+
+        assertEquals(Arrays.asList(fooRule), index.addAll(Arrays.asList(junitRule, fooRule, fooRule)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testClear() {
+        RuleIndex index = new RuleIndex();
+        index.add(junitRule);
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertTrue(index.findMatchingRules(new Dependency("junit", "junit", "jar", "3.8.2")).isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package org.debian.maven.packager;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.debian.maven.repo.Dependency;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VersionIndexTest {
+
+    private VersionIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new VersionIndex(new File(getClass().getResource("/repository").toURI()));
+    }
+
+    @Test
+    public void testVersionsFromRepository() {
+        assertEquals(Arrays.asList("3.2", "3.x"), index.getVersions("org.antlr", "antlr-runtime"));
+        assertEquals(Arrays.asList("2.9.1", "debian"), index.getVersions("xerces", "xercesImpl"));
+        assertTrue(index.getVersions("org.foo", "foo").isEmpty());
+    }
+
+    @Test
+    public void testRegisteredVersion() {
+        index.register(new Dependency("org.antlr", "antlr-runtime", "jar", "3.4"));
+        index.register(new Dependency("org.foo", "foo", "jar", "1.0"));
+
+        assertEquals(Arrays.asList("3.4", "3.2", "3.x"), index.getVersions("org.antlr", "antlr-runtime"));
+        assertEquals(Arrays.asList("1.0"), index.getVersions("org.foo", "foo"));
+    }
+
+    @Test
+    public void testRegisteredVersionKeptAfterClear() {
+        index.register(new Dependency("org.antlr", "antlr-runtime", "jar", "3.4"));
+        index.register(new Dependency("org.foo", "foo", "jar", "1.0"));
+        index.clear();
+
+        assertEquals(Arrays.asList("3.4", "3.2", "3.x"), index.getVersions("org.antlr", "antlr-runtime"));
+        assertEquals(Arrays.asList("1.0"), index.getVersions("org.foo", "foo"));
+    }
+
+    @Test
+    public void testVersionOrder() {
+        List<String> versions = Arrays.asList("debian", "1.0-beta-2", "1.10", "1.x", "1.0", "1.9.1", "1.0-beta-10", "2.0-SNAPSHOT");
+        Collections.sort(versions, VersionIndex.BEST_VERSION_FIRST);
+
+        assertEquals(Arrays.asList("2.0-SNAPSHOT", "1.10", "1.9.1", "1.0", "1.0-beta-10", "1.0-beta-2", "1.x", "debian"), versions);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.File;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ContentsIndexTest {
+
+    private File testDir = new File("target/tmp-contents");
+    private File indexFile = new File(testDir, "contents.index");
+    private File listsDir;
+
+    @Before
+    public void setUp() throws Exception {
+        listsDir = new File(getClass().getResource("/apt/lists").toURI());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(testDir);
+    }
+
+    private ContentsIndex open() {
+        return ContentsIndex.open(listsDir, indexFile, "/usr/share/maven-repo/", "/usr/share/java/", "/usr/share/doc/*/api/index.html");
+    }
+
+    @Test
+    public void testFindFile() throws Exception {
+        ContentsIndex index = open();
+
+        assertTrue(index.covers(new File("/usr/share/java/ant.jar")));
+        assertEquals("ant", index.getPackage(new File("/usr/share/java/ant.jar")));
+        assertEquals("libcommons-io-java-doc", index.getPackage(new File("/usr/share/doc/libcommons-io-java/api/index.html")));
+        assertNull(index.getPackage(new File("/usr/share/java/azertyuiop-123.jar")));
+    }
+
+    @Test
+    public void testCompressedContentsFile() throws Exception {
+        ContentsIndex index = open();
+
+        assertEquals("libjansi-native-java", index.getPackage(new File("/usr/share/java/jansi-native.jar")));
+        assertEquals("libmy-java", index.getPackage(new File("/usr/share/java/My Library.jar")));
+    }
+
+    @Test
+    public void testFileInSeveralPackages() throws Exception {
+        assertEquals("libfindbugs-java", open().getPackage(new File("/usr/share/java/jsr305.jar")));
+    }
+
+    @Test
+    public void testFileOutsideOfIndex() throws Exception {
+        ContentsIndex index = open();
+
+        assertFalse(index.covers(new File("/usr/bin/ant")));
+        assertNull(index.getPackage(new File("/usr/bin/ant")));
+    }
+
+    @Test
+    public void testFindPackagesContainingPattern() throws Exception {
+        Map<String, String> files = open().getPackagesAndFiles(new File("/usr/share/maven-repo/commons-io/commons-io"), ".pom");
+
+        assertEquals(2, files.size());
+        assertEquals("libcommons-io-java", files.get("/usr/share/maven-repo/commons-io/commons-io/2.4/commons-io-2.4.pom"));
+        assertEquals("libcommons-io-java", files.get("/usr/share/maven-repo/commons-io/commons-io/debian/commons-io-debian.pom"));
+    }
+
+    @Test
+    public void testIndexReused() throws Exception {
+        open();
+        long lastModified = indexFile.lastModified() - 10000;
+        indexFile.setLastModified(lastModified);
+
+        assertEquals("ant", open().getPackage(new File("/usr/share/java/ant.jar")));
+        assertEquals(lastModified, indexFile.lastModified());
+    }
+
+    @Test
+    public void testIndexRebuiltWhenContentsChange() throws Exception {
+        File lists = new File(testDir, "lists");
+        File contents = new File(lists, "deb.debian.org_debian_dists_sid_main_Contents-all");
+        FileUtils.writeStringToFile(contents, "usr/share/java/foo.jar    java/libfoo-java\n");
+        assertEquals("libfoo-java", ContentsIndex.open(lists, indexFile, "/usr/share/java/").getPackage(new File("/usr/share/java/foo.jar")));
+
+        FileUtils.writeStringToFile(contents, "usr/share/java/foo.jar    java/libfoo2-java\n");
+        contents.setLastModified(contents.lastModified() + 10000);
+        assertEquals("libfoo2-java", ContentsIndex.open(lists, indexFile, "/usr/share/java/").getPackage(new File("/usr/share/java/foo.jar")));
+    }
+
+    @Test
+    public void testPatterns() throws Exception {
+        File lists = new File(testDir, "lists");
+        FileUtils.writeStringToFile(new File(lists, "deb.debian.org_debian_dists_sid_main_Contents-all"),
+                "usr/share/doc/libfoo-java/api/index.html    doc/libfoo-java-doc\n" +
+                "usr/share/doc/libfoo-java/api/org/foo/Foo.html    doc/libfoo-java-doc\n" +
+                "usr/share/doc/libfoo-java/changelog.Debian.gz    java/libfoo-java\n" +
+                "usr/share/java/foo.jar    java/libfoo-java\n");
+        ContentsIndex index = ContentsIndex.open(lists, indexFile, "/usr/share/java/", "/usr/share/doc/*/api/index.html");
+
+        assertTrue(index.covers(new File("/usr/share/java")));
+        assertTrue(index.covers(new File("/usr/share/doc/libbar-java/api/index.html")));
+        assertFalse(index.covers(new File("/usr/share/javadoc/foo.jar")));
+        assertFalse(index.covers(new File("/usr/share/doc/libfoo-java/api/org/foo/Foo.html")));
+        assertFalse(index.covers(new File("/usr/share/doc/libfoo-java/changelog.Debian.gz")));
+
+        assertEquals("libfoo-java", index.getPackage(new File("/usr/share/java/foo.jar")));
+        assertEquals("libfoo-java-doc", index.getPackage(new File("/usr/share/doc/libfoo-java/api/index.html")));
+        assertNull(index.getPackage(new File("/usr/share/doc/libfoo-java/api/org/foo/Foo.html")));
+        assertNull(index.getPackage(new File("/usr/share/doc/libfoo-java/changelog.Debian.gz")));
+    }
+
+    @Test
+    public void testLargeIndex() throws Exception {
+        File lists = new File(testDir, "lists");
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            contents.append("usr/share/java/lib").append(i).append(".jar    java/lib").append(i).append("-java\n");
+        }
+        FileUtils.writeStringToFile(new File(lists, "deb.debian.org_debian_dists_sid_main_Contents-all"), contents.toString());
+        ContentsIndex index = ContentsIndex.open(lists, indexFile, "/usr/share/java/");
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("lib" + i + "-java", index.getPackage(new File("/usr/share/java/lib" + i + ".jar")));
+        }
+        assertNull(index.getPackage(new File("/usr/share/java/lib1000.jar")));
+        assertEquals(111, index.getPackagesAndFiles("/usr/share/java/lib1", ".jar").size());
+    }
+
+    @Test
+    public void testDecompressionFailure() throws Exception {
+        File lists = new File(testDir, "lists");
+        FileUtils.writeStringToFile(new File(lists, "deb.debian.org_debian_dists_sid_main_Contents-all.lz4"), "not lz4");
+        String[] prefixes = {"/usr/share/java/"};
+
+        assertNull(ContentsIndex.open(lists, indexFile, prefixes, "no-such-lz4cat"));
+        assertFalse(indexFile.exists());
+
+        assertNull(ContentsIndex.open(lists, indexFile, prefixes, "false"));
+        assertFalse(indexFile.exists());
+    }
+
+    @Test
+    public void testNoContentsFile() throws Exception {
+        assertNull(ContentsIndex.open(new File("target/no-such-dir"), indexFile, "/usr/share/java/"));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.File;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DpkgFileIndexTest {
+
+    private DpkgFileIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        File infoDir = new File(getClass().getResource("/dpkg/info").toURI());
+        index = new DpkgFileIndex(infoDir, "/usr/share/maven-repo/", "/usr/share/java/", "/usr/share/doc/");
+    }
+
+    @Test
+    public void testFindExistingFile() throws Exception {
+        assertTrue(index.covers(new File("/usr/share/java/ant.jar")));
+        assertEquals("ant", index.getPackage(new File("/usr/share/java/ant.jar")));
+        assertEquals("libcommons-io-java-doc", index.getPackage(new File("/usr/share/doc/libcommons-io-java/api/index.html")));
+    }
+
+    @Test
+    public void testMultiArchPackage() throws Exception {
+        assertEquals("libjansi-native-java", index.getPackage(new File("/usr/share/java/jansi-native.jar")));
+    }
+
+    @Test
+    public void testFindNonExistingFile() throws Exception {
+        assertTrue(index.covers(new File("/usr/share/java/azertyuiop-123.jar")));
+        assertNull(index.getPackage(new File("/usr/share/java/azertyuiop-123.jar")));
+    }
+
+    @Test
+    public void testFileOutsideOfIndex() throws Exception {
+        assertFalse(index.covers(new File("/usr/bin/ant")));
+        assertNull(index.getPackage(new File("/usr/bin/ant")));
+    }
+
+    @Test
+    public void testMissingInfoDirectory() throws Exception {
+        DpkgFileIndex missing = new DpkgFileIndex(new File("target/no-such-dir"), "/usr/share/java/");
+        assertFalse(missing.covers(new File("/usr/share/java/ant.jar")));
+    }
+
+    @Test
+    public void testFindPackagesContainingPattern() throws Exception {
+        Map<String, String> files = index.getPackagesAndFiles(new File("/usr/share/maven-repo/commons-io/commons-io"), ".pom");
+
+        assertEquals(2, files.size());
+        assertEquals("libcommons-io-java", files.get("/usr/share/maven-repo/commons-io/commons-io/2.4/commons-io-2.4.pom"));
+        assertEquals("libcommons-io-java", files.get("/usr/share/maven-repo/commons-io/commons-io/debian/commons-io-debian.pom"));
+
+        assertTrue(index.getPackagesAndFiles(new File("/usr/share/maven-repo/commons-io/commons-lang"), ".pom").isEmpty());
+    }
+
+    @Test
+    public void testFindFilesByPrefixAndExtension() throws Exception {
+        Map<String, String> jars = index.getPackagesAndFiles("/usr/share/java/", ".jar");
+
+        assertEquals(3, jars.size());
+        assertEquals("ant", jars.get("/usr/share/java/ant.jar"));
+        assertEquals("libcommons-io-java", jars.get("/usr/share/java/commons-io.jar"));
+        assertEquals("libjansi-native-java", jars.get("/usr/share/java/jansi-native.jar"));
+    }
+
+    @Test
+    public void testPrefixRangeBoundaries() throws Exception {
+        assertEquals(1, index.getPackagesAndFiles("/usr/share/java/commons", ".jar").size());
+        assertEquals(6, index.getPackagesAndFiles("/usr/share/maven-repo/commons-io/commons-io/", "").size());
+        assertTrue(index.getPackagesAndFiles(new File("/usr/share/maven-repo/commons-io/commons"), ".pom").isEmpty());
+        assertTrue(index.getPackagesAndFiles("/usr/share/java/zzz", ".jar").isEmpty());
+        assertTrue(index.getPackagesAndFiles("/aaa", "").isEmpty());
+    }
+}
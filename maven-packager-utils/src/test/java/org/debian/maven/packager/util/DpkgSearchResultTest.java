@@ -0,0 +1,26 @@
+package org.debian.maven.packager.util;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+public class DpkgSearchResultTest {
+
+    @Test
+    public void testMultiArchOutput() throws Exception {
+        // dpkg --search /usr/share/java/commons-lang.jar /usr/lib/x86_64-linux-gnu/jni/libjffi.so ...
+        DpkgSearchResult result = new DpkgSearchResult();
+        result.newLine("libcommons-lang-java: /usr/share/java/commons-lang.jar");
+        result.newLine("libjffi-jni:amd64: /usr/lib/x86_64-linux-gnu/jni/libjffi.so");
+        result.newLine("libfoo-java:amd64, libfoo-java:i386: /usr/share/doc/libfoo-java");
+        result.newLine("diversion by dash from: /bin/sh");
+        result.newLine("dpkg-query: no path found matching pattern /usr/share/java/missing.jar");
+
+        assertEquals(3, result.getPackagesAndFiles().size());
+        assertEquals("libcommons-lang-java", result.getPackagesAndFiles().get("/usr/share/java/commons-lang.jar"));
+        assertEquals("libjffi-jni", result.getPackagesAndFiles().get("/usr/lib/x86_64-linux-gnu/jni/libjffi.so"));
+        assertEquals("libfoo-java", result.getPackagesAndFiles().get("/usr/share/doc/libfoo-java"));
+        assertNull(result.getPackagesAndFiles().get("/bin/sh"));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DpkgStatusTest {
+
+    private DpkgStatus getStatus() throws Exception {
+        return new DpkgStatus(new File(getClass().getResource("/dpkg/status").toURI()));
+    }
+
+    @Test
+    public void testInstalledPackages() throws Exception {
+        DpkgStatus status = getStatus();
+
+        assertTrue(status.isAvailable());
+        assertEquals("2.6", status.getVersion("libjavacc-maven-plugin-java"));
+        assertEquals("2.1-beta1", status.getVersion("libmaven-war-plugin-java"));
+        assertEquals("1.0", status.getVersion("libjansi-native-java"));
+    }
+
+    @Test
+    public void testPackagesNotInstalled() throws Exception {
+        DpkgStatus status = getStatus();
+
+        assertNull("Removed package", status.getVersion("libcommons-io-java"));
+        assertNull("Unknown package", status.getVersion("libazertyuiop-java"));
+    }
+
+    @Test
+    public void testMissingStatusFile() throws Exception {
+        DpkgStatus status = new DpkgStatus(new File("target/no-such-status"));
+
+        assertFalse(status.isAvailable());
+        assertNull(status.getVersion("libjavacc-maven-plugin-java"));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IOUtilTest {
+
+    private static class RecordingHandler implements OutputHandler {
+        List<String> lines = new ArrayList<String>();
+        boolean failed;
+
+        public void newLine(String line) {
+            lines.add(line);
+        }
+
+        public void failure() {
+            failed = true;
+        }
+    }
+
+    @Test
+    public void testExecuteProcess() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        IOUtil.executeProcess(new String[]{"/bin/sh", "-c", "echo foo; echo bar >&2"}, handler);
+
+        assertEquals(2, handler.lines.size());
+        assertTrue(handler.lines.contains("foo"));
+        assertTrue(handler.lines.contains("bar"));
+        assertFalse(handler.failed);
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        IOUtil.executeProcess(new String[]{"/bin/sh", "-c", "exit 1"}, handler);
+        assertTrue(handler.failed);
+
+        handler = new RecordingHandler();
+        IOUtil.executeProcess(new String[]{"/no/such/command"}, handler);
+        assertTrue(handler.failed);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        long start = System.currentTimeMillis();
+        IOUtil.executeProcess(new String[]{"/bin/sh", "-c", "echo foo; exec sleep 30"}, handler, 500);
+
+        assertTrue(System.currentTimeMillis() - start < 10000);
+        assertTrue(handler.failed);
+    }
+
+    @Test
+    public void testTimeoutWithManyConcurrentCommands() throws Exception {
+        // the timeout of each command is enforced even when many commands run at once
+        final List<RecordingHandler> handlers = new ArrayList<RecordingHandler>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 32; i++) {
+            final RecordingHandler handler = new RecordingHandler();
+            handlers.add(handler);
+            threads.add(new Thread() {
+                public void run() {
+                    IOUtil.executeProcess(new String[]{"/bin/sh", "-c", "exec sleep 30"}, handler, 500);
+                }
+            });
+        }
+        long start = System.currentTimeMillis();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(System.currentTimeMillis() - start < 10000);
+        for (RecordingHandler handler : handlers) {
+            assertTrue(handler.failed);
+        }
+    }
+
+    @Test
+    public void testManyCommands() throws Exception {
+        int threads = Thread.activeCount();
+        for (int i = 0; i < 50; i++) {
+            RecordingHandler handler = new RecordingHandler();
+            IOUtil.executeProcess(new String[]{"echo", String.valueOf(i)}, handler);
+            assertEquals(String.valueOf(i), handler.lines.get(0));
+        }
+        // the readers are reused instead of being created for each command
+        assertTrue(Thread.activeCount() - threads <= 16);
+    }
+
+    @Test
+    public void testExecuteProcessAsync() throws Exception {
+        Future<RecordingHandler> foo = IOUtil.executeProcessAsync(new String[]{"echo", "foo"}, new RecordingHandler());
+        Future<RecordingHandler> bar = IOUtil.executeProcessAsync(new String[]{"echo", "bar"}, new RecordingHandler());
+
+        assertEquals("bar", IOUtil.await(bar).lines.get(0));
+        assertEquals("foo", IOUtil.await(foo).lines.get(0));
+    }
+
+    @Test
+    public void testCancelAsync() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        long start = System.currentTimeMillis();
+        Future<RecordingHandler> command = IOUtil.executeProcessAsync(new String[]{"sleep", "30"}, handler);
+        Thread.sleep(200);
+        command.cancel(true);
+
+        assertNull(IOUtil.await(command));
+        // the next commands can still run
+        assertEquals("foo", IOUtil.await(IOUtil.executeProcessAsync(new String[]{"echo", "foo"}, new RecordingHandler())).lines.get(0));
+        assertTrue(System.currentTimeMillis() - start < 10000);
+    }
+}
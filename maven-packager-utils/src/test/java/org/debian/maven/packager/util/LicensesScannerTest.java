@@ -35,4 +35,59 @@ public class LicensesScannerTest extends TestCase {
         assertEquals("Apache-2.0", licenses.iterator().next());
         licenses.clear();
     }
+
+    private String recognize(String name, String url) {
+        Set<String> licenses = new HashSet<String>();
+        boolean recognized = new LicensesScanner().recognizeLicense(licenses, name, url);
+        assertEquals(recognized, !licenses.isEmpty());
+        return recognized ? licenses.iterator().next() : null;
+    }
+
+    public void testRecognizeProjectLicenses() throws Exception {
+        assertEquals("Apache-2.0", recognize("The Apache Software License, Version 2.0 ", "http://www.apache.org/licenses/LICENSE-2.0.txt"));
+        assertEquals("Apache-1.1", recognize("Apache License 1.1 ", ""));
+        assertEquals("LGPL-2.1", recognize("GNU Lesser General Public License ", "http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html"));
+        assertEquals("LGPL-3", recognize("LGPL v3 ", ""));
+        assertEquals("GPL-2", recognize("GPLv2 ", ""));
+        assertEquals("GPL-3", recognize("", "http://www.gnu.org/licenses/gpl-3.0.html"));
+        assertEquals("AGPL-3", recognize("GNU Affero General Public License ", ""));
+        assertEquals("MIT", recognize("MIT License ", "http://www.opensource.org/licenses/mit-license.php"));
+        assertEquals("BSD", recognize("New BSD License ", "http://www.opensource.org/licenses/bsd-license.php"));
+        assertEquals("EPL-1.0", recognize("Eclipse Public License - v 1.0 ", "http://www.eclipse.org/legal/epl-v10.html"));
+        assertEquals("MPL-1.1", recognize("Mozilla Public License Version 1.1 ", ""));
+        assertEquals("CDDL", recognize("COMMON DEVELOPMENT AND DISTRIBUTION LICENSE (CDDL) Version 1.0 ", ""));
+        assertEquals("CC-BY-SA-3.0", recognize("", "http://creativecommons.org/licenses/by-sa/3.0"));
+        assertEquals("CC-BY-3.0", recognize("", "http://creativecommons.org/licenses/by/3.0/"));
+        assertEquals("CC0", recognize("CC0 ", ""));
+    }
+
+    public void testRecognizeLicenseCheckOutput() throws Exception {
+        assertEquals("LGPL-2.1", recognize("LGPL (v2.1 or later)", ""));
+        assertEquals("GPL-2", recognize("GPL (v2) with Classpath exception", ""));
+        assertEquals("GPL-3", recognize("GPL (v3 or later)", ""));
+        assertEquals("BSD", recognize("BSD (3 clause)", ""));
+        assertEquals("MIT", recognize("MIT License", ""));
+        assertEquals("Artistic", recognize("Artistic License", ""));
+        assertEquals("ZLIB", recognize("zlib/libpng", ""));
+    }
+
+    public void testRecognizeSpdxIdentifiers() throws Exception {
+        assertEquals("Unlicense", recognize("Unlicense", ""));
+        assertEquals("MIT-0", recognize("MIT-0 ", ""));
+        assertEquals("BSL-1.0", recognize("", "https://spdx.org/licenses/BSL-1.0"));
+        assertEquals("OFL-1.1", recognize("SIL Open Font License (OFL-1.1) ", ""));
+        assertEquals("WTFPL", recognize("wtfpl ", ""));
+        // the licenses of the table keep their Debian short names
+        assertEquals("GPL-2", recognize("GPL-2.0-only ", ""));
+        assertEquals("LGPL-2.1", recognize("LGPL-2.1-or-later ", ""));
+        assertEquals("Apache-2.0", recognize("Apache-2.0 ", ""));
+    }
+
+    public void testUnrecognizedLicense() throws Exception {
+        assertNull(recognize("Apache License ", ""));
+        assertNull(recognize("GPL ", ""));
+        assertNull(recognize("Proprietary ", "http://www.example.com/license.html"));
+        assertNull(recognize("Submit a template ", ""));
+        assertNull(recognize("", ""));
+    }
 }
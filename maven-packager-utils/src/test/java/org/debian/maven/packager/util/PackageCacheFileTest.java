@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PackageCacheFileTest {
+
+    private File testDir = new File("target/tmp-cache");
+    private File dpkgStatus = new File(testDir, "status");
+    private File dpkgInfo = new File(testDir, "info");
+    private File aptLists = new File(testDir, "lists");
+    private File cache = new File(testDir, "maven-debian-helper/packages.cache");
+
+    @Before
+    public void setUp() throws Exception {
+        dpkgInfo.mkdirs();
+        aptLists.mkdirs();
+        FileUtils.writeStringToFile(dpkgStatus, "Package: ant\n");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(testDir);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        Map<File, String> files = new HashMap<File, String>();
+        files.put(new File("/usr/share/java/ant.jar"), "ant");
+        Map<String, String> versions = new HashMap<String, String>();
+        versions.put("ant", "1.9.4");
+        Map<String, List<String>> jars = new HashMap<String, List<String>>();
+        jars.put("ant", Arrays.asList("ant", "ant-launcher"));
+        jars.put("ant-doc", Collections.<String>emptyList());
+
+        new PackageCacheFile(cache, dpkgStatus, dpkgInfo, aptLists).save(files, versions, jars);
+
+        Map<File, String> loadedFiles = new HashMap<File, String>();
+        Map<String, String> loadedVersions = new HashMap<String, String>();
+        Map<String, List<String>> loadedJars = new HashMap<String, List<String>>();
+        assertTrue(new PackageCacheFile(cache, dpkgStatus, dpkgInfo, aptLists).load(loadedFiles, loadedVersions, loadedJars));
+
+        assertEquals(files, loadedFiles);
+        assertEquals(versions, loadedVersions);
+        assertEquals(jars, loadedJars);
+    }
+
+    @Test
+    public void testInvalidatedByDpkgChanges() throws Exception {
+        Map<File, String> files = new HashMap<File, String>();
+        files.put(new File("/usr/share/java/ant.jar"), "ant");
+
+        new PackageCacheFile(cache, dpkgStatus, dpkgInfo, aptLists).save(files, new HashMap<String, String>(), new HashMap<String, List<String>>());
+        dpkgStatus.setLastModified(dpkgStatus.lastModified() - 10000);
+
+        Map<File, String> loadedFiles = new HashMap<File, String>();
+        assertFalse(new PackageCacheFile(cache, dpkgStatus, dpkgInfo, aptLists).load(loadedFiles, new HashMap<String, String>(), new HashMap<String, List<String>>()));
+        assertTrue(loadedFiles.isEmpty());
+    }
+
+    @Test
+    public void testInvalidatedByAptUpdate() throws Exception {
+        Map<File, String> files = new HashMap<File, String>();
+        files.put(new File("/usr/share/maven-repo/junit/junit/4.x/junit-4.x.pom"), "junit4");
+
+        new PackageCacheFile(cache, dpkgStatus, dpkgInfo, aptLists).save(files, new HashMap<String, String>(), new HashMap<String, List<String>>());
+        aptLists.setLastModified(aptLists.lastModified() - 10000);
+
+        Map<File, String> loadedFiles = new HashMap<File, String>();
+        assertFalse(new PackageCacheFile(cache, dpkgStatus, dpkgInfo, aptLists).load(loadedFiles, new HashMap<String, String>(), new HashMap<String, List<String>>()));
+        assertTrue(loadedFiles.isEmpty());
+    }
+
+    @Test
+    public void testMissingCache() throws Exception {
+        assertFalse(new PackageCacheFile(cache, dpkgStatus, dpkgInfo, aptLists).load(new HashMap<File, String>(), new HashMap<String, String>(), new HashMap<String, List<String>>()));
+    }
+
+    @Test
+    public void testDefaultLocation() throws Exception {
+        Map<String, String> env = new HashMap<String, String>();
+        env.put("HOME", testDir.getAbsolutePath());
+        assertEquals(new File(testDir.getAbsoluteFile(), ".cache/maven-debian-helper/packages.cache"), PackageCacheFile.getDefaultLocation(env));
+
+        env.put("XDG_CACHE_HOME", new File(testDir, "cache").getAbsolutePath());
+        assertEquals(new File(testDir.getAbsoluteFile(), "cache/maven-debian-helper/packages.cache"), PackageCacheFile.getDefaultLocation(env));
+    }
+
+    @Test
+    public void testNoCacheDuringPackageBuild() throws Exception {
+        Map<String, String> env = new HashMap<String, String>();
+        env.put("HOME", testDir.getAbsolutePath());
+        env.put("DEB_BUILD_OPTIONS", "parallel=4");
+        assertNull(PackageCacheFile.getDefaultLocation(env));
+    }
+
+    @Test
+    public void testNoCacheInvalidHome() throws Exception {
+        // sbuild sets HOME to a path that doesn't exist and can't be created
+        Map<String, String> env = new HashMap<String, String>();
+        env.put("HOME", new File(dpkgStatus, "nonexistent").getAbsolutePath());
+        assertNull(PackageCacheFile.getDefaultLocation(env));
+    }
+}
@@ -17,6 +17,10 @@
 package org.debian.maven.packager.util;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.debian.maven.packager.DebianDependency;
 import org.junit.Test;
@@ -43,4 +47,60 @@ public class PackageScannerTest {
         
         assertNull("Package should be null", dependency);
     }
+
+    @Test
+    public void testSearchPackagesInBatch() throws Exception {
+        PackageScanner scanner = new PackageScanner(true);
+
+        File antJar = new File("/usr/share/java/ant.jar");
+        File ls = new File("/bin/ls");
+        File unknown = new File("/usr/share/java/azertyuiop-123.jar");
+        Map<File, DebianDependency> packages = scanner.searchPkgs(Arrays.asList(antJar, ls, unknown));
+
+        assertEquals(3, packages.size());
+        assertEquals("ant", packages.get(antJar).getPackageName());
+        assertEquals("coreutils", packages.get(ls).getPackageName());
+        assertNull(packages.get(unknown));
+    }
+
+    @Test
+    public void testListSharedJarsInBatch() throws Exception {
+        PackageScanner scanner = new PackageScanner(true);
+
+        Map<String, List<String>> jars = scanner.listSharedJars(Arrays.asList("ant (>= 1.8)", "dpkg"));
+
+        assertEquals(2, jars.size());
+        assertTrue(jars.get("ant").contains("ant"));
+        assertTrue(jars.get("dpkg").isEmpty());
+    }
+
+    @Test
+    public void testNotFoundFileIsCachedButNotSaved() throws Exception {
+        File cache = new File("target/tmp-scanner/packages.cache");
+        PackageCacheFile cacheFile = new PackageCacheFile(cache, new File("pom.xml"), new File("src"), new File("src"));
+        PackageScanner scanner = new PackageScanner(true, cacheFile);
+        // outside of the dpkg index, the file is searched with dpkg --search
+        File unknown = new File("/usr/lib/azertyuiop-123.so");
+
+        Trace.start(new File("target/tmp-scanner/trace.json"));
+        try {
+            assertNull(scanner.searchPkg(unknown));
+            long processes = Trace.getCount("subprocess");
+            assertTrue(processes > 0);
+
+            assertNull(scanner.searchPkg(unknown));
+            assertEquals("No process expected for a file cached", processes, Trace.getCount("subprocess"));
+
+            assertNull(scanner.newInstanceWithFreshCaches().searchPkg(unknown));
+            assertTrue(Trace.getCount("subprocess") > processes);
+        } finally {
+            Trace.save();
+        }
+
+        scanner.saveCache();
+        Map<File, String> files = new HashMap<File, String>();
+        assertTrue(cacheFile.load(files, new HashMap<String, String>(), new HashMap<String, List<String>>()));
+        assertTrue("Files not found shouldn't be saved", files.isEmpty());
+        cache.delete();
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SourceLicenseDetectorTest {
+
+    private static final String APACHE_HEADER =
+            "/*\n" +
+            " * Licensed under the Apache License, Version 2.0 (the \"License\");\n" +
+            " * you may not use this file except in compliance with the License.\n" +
+            " */\n";
+
+    private static final String LGPL_HEADER =
+            "# This library is free software; you can redistribute it and/or\n" +
+            "# modify it under the terms of the GNU Lesser General Public\n" +
+            "# License as published by the Free Software Foundation; either\n" +
+            "# version 2.1 of the License, or (at your option) any later version.\n";
+
+    private static final String GPL_HEADER =
+            " * This program is free software; you can redistribute it and/or modify\n" +
+            " * it under the terms of the GNU General Public License version 2 only, as\n" +
+            " * published by the Free Software Foundation.\n";
+
+    private static final String BSD_HEADER =
+            " * Redistribution and use in source and binary forms, with or without\n" +
+            " * modification, are permitted provided that the following conditions are met:\n" +
+            " * Neither the name of the copyright holder nor the names of its contributors\n";
+
+    private static final String MIT_HEADER =
+            "// Permission is hereby granted, free of charge, to any person obtaining a copy\n" +
+            "// of this software and associated documentation files (the \"Software\")\n";
+
+    private File testDir = new File("target/tmp-licenses");
+    private SourceLicenseDetector detector = new SourceLicenseDetector();
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(testDir);
+    }
+
+    private String detect(String header) throws Exception {
+        File file = new File(testDir, "Header.java");
+        FileUtils.writeStringToFile(file, header + "\npackage foo;\n");
+        return detector.detectLicense(file);
+    }
+
+    @Test
+    public void testDetectLicense() throws Exception {
+        assertEquals("Apache (v2.0)", detect(APACHE_HEADER));
+        assertEquals("LGPL (v2.1 or later)", detect(LGPL_HEADER));
+        assertEquals("GPL (v2)", detect(GPL_HEADER));
+        assertEquals("BSD (3 clause)", detect(BSD_HEADER));
+        assertEquals("MIT License", detect(MIT_HEADER));
+        assertNull(detect("/* Copyright 2013 Foo */"));
+    }
+
+    @Test
+    public void testDetectedLicensesAreRecognized() throws Exception {
+        LicensesScanner scanner = new LicensesScanner();
+        for (String header : new String[] {APACHE_HEADER, LGPL_HEADER, GPL_HEADER, BSD_HEADER, MIT_HEADER}) {
+            assertTrue(header, scanner.recognizeLicense(new HashSet<String>(), detect(header), ""));
+        }
+    }
+
+    @Test
+    public void testBinaryFileIgnored() throws Exception {
+        File file = new File(testDir, "foo.class");
+        FileUtils.writeByteArrayToFile(file, (APACHE_HEADER + "\u0000\u0001").getBytes("UTF-8"));
+        assertNull(detector.detectLicense(file));
+    }
+
+    @Test
+    public void testScan() throws Exception {
+        FileUtils.writeStringToFile(new File(testDir, "src/main/java/Foo.java"), APACHE_HEADER);
+        FileUtils.writeStringToFile(new File(testDir, "src/main/java/bar/Bar.java"), MIT_HEADER);
+        FileUtils.writeStringToFile(new File(testDir, "README"), "Hello");
+        FileUtils.writeStringToFile(new File(testDir, "target/classes/Baz.java"), GPL_HEADER);
+        FileUtils.writeStringToFile(new File(testDir, ".git/hooks/post-commit"), LGPL_HEADER);
+
+        Set<String> licenses = detector.scan(testDir);
+
+        assertEquals(2, licenses.size());
+        assertTrue(licenses.contains("Apache (v2.0)"));
+        assertTrue(licenses.contains("MIT License"));
+    }
+
+    @Test
+    public void testSymbolicLinksIgnored() throws Exception {
+        File outside = new File(testDir.getParentFile(), testDir.getName() + "-outside/Outside.java");
+        FileUtils.writeStringToFile(outside, GPL_HEADER);
+        try {
+            FileUtils.writeStringToFile(new File(testDir, "src/Foo.java"), APACHE_HEADER);
+            // a cycle and a link to a file outside of the sources
+            link(testDir.getAbsolutePath(), new File(testDir, "src/loop"));
+            link(outside.getAbsolutePath(), new File(testDir, "src/Outside.java"));
+
+            Set<String> licenses = detector.scan(testDir);
+
+            assertEquals(1, licenses.size());
+            assertTrue(licenses.contains("Apache (v2.0)"));
+        } finally {
+            FileUtils.deleteDirectory(outside.getParentFile());
+        }
+    }
+
+    private void link(String target, File link) throws Exception {
+        assertEquals(0, Runtime.getRuntime().exec(new String[] {"ln", "-s", target, link.getPath()}).waitFor());
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        File cache = new File(testDir, LicensesScanner.LICENSES_CACHE);
+        File foo = new File(testDir, "src/Foo.java");
+        FileUtils.writeStringToFile(foo, APACHE_HEADER);
+        FileUtils.writeStringToFile(new File(testDir, "src/Bar.java"), MIT_HEADER);
+
+        assertEquals(2, new SourceLicenseDetector(cache).scan(testDir).size());
+        assertTrue(cache.exists());
+
+        // alter the cached result to check that the unchanged files are not examined again
+        Properties properties = new Properties();
+        properties.load(new FileInputStream(cache));
+        assertEquals(3, properties.size());
+        for (String hash : properties.stringPropertyNames()) {
+            if (properties.getProperty(hash).equals("MIT License")) {
+                properties.setProperty(hash, "Cached License");
+            }
+        }
+        properties.store(new FileOutputStream(cache), null);
+
+        FileUtils.writeStringToFile(foo, GPL_HEADER);
+        Set<String> licenses = new SourceLicenseDetector(cache).scan(testDir);
+
+        assertEquals(2, licenses.size());
+        assertTrue(licenses.contains("GPL (v2)"));
+        assertTrue(licenses.contains("Cached License"));
+
+        // the entry of the previous content of Foo.java is forgotten
+        properties = new Properties();
+        properties.load(new FileInputStream(cache));
+        assertEquals(3, properties.size());
+        assertFalse(properties.containsValue("Apache (v2.0)"));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Debian Java Maintainers
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.debian.maven.packager.util;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TraceTest {
+
+    private File file = new File("target/trace.json");
+
+    @After
+    public void tearDown() {
+        Trace.save();
+        file.delete();
+    }
+
+    @Test
+    public void testDisabled() {
+        assertFalse(Trace.isEnabled());
+        assertEquals(0, Trace.now());
+        Trace.event("phase", "scan", 0);
+        Trace.cache("poms", true);
+        Trace.save();
+
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testEventsAndCounters() throws Exception {
+        Trace.start(file);
+        assertTrue(Trace.isEnabled());
+        Trace.event("phase", "scan the repository", Trace.now());
+        Trace.event("dependency", "org.foo:\"foo\"", Trace.now());
+        Trace.cache("poms", true);
+        Trace.cache("poms", true);
+        Trace.cache("poms", false);
+        Trace.count("subprocess");
+        Trace.save();
+
+        assertFalse(Trace.isEnabled());
+        String trace = FileUtils.readFileToString(file, "UTF-8");
+        assertTrue(trace.startsWith("{\"traceEvents\":["));
+        assertTrue(trace.contains("{\"name\":\"scan the repository\",\"cat\":\"phase\",\"ph\":\"X\""));
+        assertTrue(trace.contains("\"name\":\"org.foo:\\\"foo\\\"\""));
+        assertTrue(trace.contains("\"args\":{\"poms.hit\":2,\"poms.miss\":1,\"subprocess\":1}"));
+    }
+
+    @Test
+    public void testSubprocessCounted() throws Exception {
+        Trace.start(file);
+        IOUtil.executeProcess(new String[]{"true"}, new OutputHandler() {
+            public void newLine(String line) {
+            }
+
+            public void failure() {
+            }
+        });
+        Trace.save();
+
+        String trace = FileUtils.readFileToString(file, "UTF-8");
+        assertTrue(trace.contains("\"name\":\"true\",\"cat\":\"subprocess\""));
+        assertTrue(trace.contains("\"subprocess\":1"));
+    }
+}